@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula;
+
+import javax.annotation.Nullable;
+
+// persistent hash array mapped trie, put only copies the path to the new entry
+final class HashTrie {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final HashTrie EMPTY = new HashTrie(new Branch(0, new Object[0]), 0);
+
+	private final Node root;
+	private final int size;
+
+	private HashTrie(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	int size() {
+		return size;
+	}
+
+	// null if not present
+	@Nullable Object get(Object key) {
+		return root.get(key, hash(key), 0);
+	}
+
+	// key must not be present
+	HashTrie put(Object key, Object value) {
+		return new HashTrie(root.put(new Leaf(hash(key), key, value), 0), size + 1);
+	}
+
+	static HashTrie empty() {
+		return EMPTY;
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	private static abstract class Node {
+		abstract @Nullable Object get(Object key, int hash, int shift);
+
+		abstract Node put(Leaf leaf, int shift);
+	}
+
+	private static final class Leaf {
+		private final int hash;
+		private final Object key;
+		private final Object value;
+
+		private Leaf(int hash, Object key, Object value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	// entries are either a Leaf or a Node, one for each bit set in bitmap
+	private static final class Branch extends Node {
+		private final int bitmap;
+		private final Object[] entries;
+
+		private Branch(int bitmap, Object[] entries) {
+			this.bitmap = bitmap;
+			this.entries = entries;
+		}
+
+		@Override
+		@Nullable Object get(Object key, int hash, int shift) {
+			int bit = bit(hash, shift);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			Object entry = entries[index(bit)];
+			if (entry instanceof Leaf) {
+				Leaf leaf = (Leaf) entry;
+				return leaf.hash == hash && leaf.key.equals(key) ? leaf.value : null;
+			}
+			return ((Node) entry).get(key, hash, shift + BITS);
+		}
+
+		@Override
+		Node put(Leaf leaf, int shift) {
+			int bit = bit(leaf.hash, shift);
+			int index = index(bit);
+			if ((bitmap & bit) == 0) {
+				Object[] copy = new Object[entries.length + 1];
+				System.arraycopy(entries, 0, copy, 0, index);
+				copy[index] = leaf;
+				System.arraycopy(entries, index, copy, index + 1, entries.length - index);
+				return new Branch(bitmap | bit, copy);
+			}
+
+			Object entry = entries[index];
+			Object[] copy = entries.clone();
+			copy[index] = entry instanceof Leaf
+				? merge((Leaf) entry, leaf, shift + BITS)
+				: ((Node) entry).put(leaf, shift + BITS);
+			return new Branch(bitmap, copy);
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		private static Node merge(Leaf first, Leaf second, int shift) {
+			if (first.hash == second.hash) {
+				return new Collision(first.hash, new Leaf[] { first, second });
+			}
+			int firstBit = bit(first.hash, shift);
+			int secondBit = bit(second.hash, shift);
+			if (firstBit == secondBit) {
+				return new Branch(firstBit, new Object[] { merge(first, second, shift + BITS) });
+			}
+			return new Branch(firstBit | secondBit, Integer.compareUnsigned(firstBit, secondBit) < 0
+				? new Object[] { first, second }
+				: new Object[] { second, first });
+		}
+	}
+
+	// all leafs share the same hash
+	private static final class Collision extends Node {
+		private final int hash;
+		private final Leaf[] leafs;
+
+		private Collision(int hash, Leaf[] leafs) {
+			this.hash = hash;
+			this.leafs = leafs;
+		}
+
+		@Override
+		@Nullable Object get(Object key, int hash, int shift) {
+			if (hash == this.hash) {
+				for (Leaf leaf : leafs) {
+					if (leaf.key.equals(key)) {
+						return leaf.value;
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		Node put(Leaf leaf, int shift) {
+			if (leaf.hash == hash) {
+				Leaf[] copy = new Leaf[leafs.length + 1];
+				System.arraycopy(leafs, 0, copy, 0, leafs.length);
+				copy[leafs.length] = leaf;
+				return new Collision(hash, copy);
+			}
+			return new Branch(bit(hash, shift), new Object[] { this }).put(leaf, shift);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// ValueContainer was generated as ImmutableValueContainer before it became a persistent container,
+// the builder and copyOf are kept for existing callers and create a ValueContainer
+@Deprecated
+public abstract class ImmutableValueContainer {
+	private ImmutableValueContainer() {
+		// no instance
+	}
+
+	// use ValueContainer.of or ValueContainer.add
+	@Deprecated
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	// a ValueContainer is immutable already
+	@Deprecated
+	public static ValueContainer copyOf(ValueContainer instance) {
+		return Preconditions.checkNotNull(instance, "instance");
+	}
+
+	@Deprecated
+	public static final class Builder {
+		private final Map<Value<?>, Object> values = new LinkedHashMap<>();
+		private final Set<Value<?>> nullValues = new LinkedHashSet<>();
+
+		private Builder() {
+		}
+
+		public Builder from(ValueContainer instance) {
+			for (Value<?> id : instance.keys()) {
+				Object value = instance.get(id);
+				if (value != null) {
+					putValues(id, value);
+				} else {
+					addNullValues(id);
+				}
+			}
+			return this;
+		}
+
+		public Builder putValues(Value<?> key, Object value) {
+			Preconditions.checkArgument(!values.containsKey(key) && !nullValues.contains(key), "%s already set", key);
+			values.put(key, Preconditions.checkNotNull(value, "value of %s is null", key));
+			return this;
+		}
+
+		public Builder putAllValues(Map<? extends Value<?>, ?> entries) {
+			entries.forEach(this::putValues);
+			return this;
+		}
+
+		public Builder addNullValues(Value<?>... elements) {
+			return addAllNullValues(Arrays.asList(elements));
+		}
+
+		public Builder addAllNullValues(Iterable<? extends Value<?>> elements) {
+			for (Value<?> id : elements) {
+				Preconditions.checkArgument(!values.containsKey(id), "%s already set", id);
+				nullValues.add(id);
+			}
+			return this;
+		}
+
+		public ValueContainer build() {
+			return ValueContainer.of(values, nullValues);
+		}
+	}
+}
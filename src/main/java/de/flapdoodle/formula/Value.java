@@ -17,6 +17,9 @@
 package de.flapdoodle.formula;
 
 import de.flapdoodle.formula.values.Named;
+import de.flapdoodle.formula.values.NamedDouble;
+import de.flapdoodle.formula.values.NamedInt;
+import de.flapdoodle.formula.values.NamedLong;
 import de.flapdoodle.formula.values.Related;
 import de.flapdoodle.reflection.TypeInfo;
 
@@ -40,5 +43,15 @@ public interface Value<T> {
 		return Named.named(name, type);
 	}
 
+	static NamedDouble namedDouble(String name) {
+		return NamedDouble.named(name);
+	}
+	static NamedLong namedLong(String name) {
+		return NamedLong.named(name);
+	}
+	static NamedInt namedInt(String name) {
+		return NamedInt.named(name);
+	}
+
 	static <T> Unvalidated<T> unvalidated(ValueSource<T> source) { return Unvalidated.wrap(source); }
 }
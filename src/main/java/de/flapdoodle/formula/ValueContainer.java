@@ -16,46 +16,143 @@
  */
 package de.flapdoodle.formula;
 
+import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Sets;
-import org.immutables.value.Value.Immutable;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
-@Immutable
-public abstract class ValueContainer {
-	protected abstract Map<Value<?>, Object> values();
-	protected abstract Set<Value<?>> nullValues();
+// persistent, each add shares everything but the path to the new entry with the previous container
+public final class ValueContainer {
+	private static final Object NULL = new Object();
+	private static final ValueContainer EMPTY = new ValueContainer(HashTrie.empty(), null);
 
-	@org.immutables.value.Value.Auxiliary
-	public <T> ValueContainer add(Value<T> id, T value) {
-		Preconditions.checkArgument(!values().containsKey(id), "%s already set to %s", id, values().get(id));
-		Preconditions.checkArgument(!nullValues().contains(id), "%s already set to null", id);
+	private final HashTrie values;
+	// newest first
+	@Nullable
+	private final Added added;
+	private volatile ImmutableSet<Value<?>> keys;
 
-		ImmutableValueContainer.Builder builder = ImmutableValueContainer.builder()
-			.from(this);
-		if (value==null) {
-			builder.addNullValues(id);
-		} else {
-			builder.putValues(id, value);
-		}
-		return builder.build();
+	private ValueContainer(HashTrie values, @Nullable Added added) {
+		this.values = values;
+		this.added = added;
+	}
+
+	public <T> ValueContainer add(Value<T> id, @Nullable T value) {
+		return put(id, value);
+	}
+
+	private ValueContainer put(Value<?> id, @Nullable Object value) {
+		Object current = values.get(id);
+		Preconditions.checkArgument(current == null, "%s already set to %s", id, current == NULL ? null : current);
+
+		return new ValueContainer(values.put(id, value != null ? value : NULL), new Added(id, added));
 	}
 
-	@org.immutables.value.Value.Auxiliary
+	@SuppressWarnings("unchecked")
 	public <T> @Nullable T get(Value<T> id) {
-		return !nullValues().contains(id)
-			? (T) Preconditions.checkNotNull(values().get(id),"value %s not set", id)
-			: null;
+		Object value = Preconditions.checkNotNull(values.get(id), "value %s not set", id);
+		return value != NULL ? (T) value : null;
+	}
+
+	public boolean contains(Value<?> id) {
+		return values.get(id) != null;
 	}
 
+	public int size() {
+		return values.size();
+	}
+
+	// in insertion order
 	public Set<Value<?>> keys() {
-		return Sets.union(values().keySet(), nullValues());
+		ImmutableSet<Value<?>> current = keys;
+		if (current == null) {
+			current = ImmutableSet.copyOf(insertionOrder());
+			keys = current;
+		}
+		return current;
+	}
+
+	private List<Value<?>> insertionOrder() {
+		Value<?>[] ret = new Value<?>[values.size()];
+		int index = ret.length;
+		for (Added it = added; it != null; it = it.previous) {
+			ret[--index] = it.id;
+		}
+		return Arrays.asList(ret);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		ValueContainer other = (ValueContainer) o;
+		if (size() != other.size()) return false;
+		for (Added it = added; it != null; it = it.previous) {
+			if (!Objects.equals(values.get(it.id), other.values.get(it.id))) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int ret = 0;
+		for (Added it = added; it != null; it = it.previous) {
+			Object value = values.get(it.id);
+			ret += it.id.hashCode() ^ (value != NULL ? value.hashCode() : 0);
+		}
+		return ret;
+	}
+
+	@Override
+	public String toString() {
+		ImmutableMap.Builder<Value<?>, Object> nonNullValues = ImmutableMap.builder();
+		ImmutableSet.Builder<Value<?>> nullValues = ImmutableSet.builder();
+		for (Value<?> id : keys()) {
+			Object value = values.get(id);
+			if (value != NULL) {
+				nonNullValues.put(id, value);
+			} else {
+				nullValues.add(id);
+			}
+		}
+		return MoreObjects.toStringHelper(ValueContainer.class)
+			.add("values", nonNullValues.build())
+			.add("nullValues", nullValues.build())
+			.toString();
 	}
 
 	public static ValueContainer empty() {
-		return ImmutableValueContainer.builder().build();
+		return EMPTY;
+	}
+
+	// replaces ImmutableValueContainer.builder().putAllValues(values).addAllNullValues(nullValues).build(),
+	// the deprecated ImmutableValueContainer delegates to this
+	public static ValueContainer of(Map<? extends Value<?>, ?> values, Set<? extends Value<?>> nullValues) {
+		ValueContainer ret = EMPTY;
+		for (Map.Entry<? extends Value<?>, ?> entry : values.entrySet()) {
+			ret = ret.put(entry.getKey(), Preconditions.checkNotNull(entry.getValue(), "value of %s is null", entry.getKey()));
+		}
+		for (Value<?> id : nullValues) {
+			ret = ret.put(id, null);
+		}
+		return ret;
+	}
+
+	private static final class Added {
+		private final Value<?> id;
+		@Nullable
+		private final Added previous;
+
+		private Added(Value<?> id, @Nullable Added previous) {
+			this.id = id;
+			this.previous = previous;
+		}
 	}
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate;
+
+import com.google.common.base.Throwables;
+import org.immutables.value.Value.Auxiliary;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public interface AsyncCalculation<D> extends Calculation<D> {
+	@Auxiliary
+	CompletableFuture<D> calculateAsync(ValueLookup values);
+
+	// blocking fallback for solvers which do not support async calculations
+	@Override
+	@Auxiliary
+	default D calculate(ValueLookup values) {
+		try {
+			return calculateAsync(values).join();
+		}
+		catch (CompletionException ex) {
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw ex;
+		}
+	}
+}
@@ -22,6 +22,7 @@ import de.flapdoodle.formula.calculate.calculations.*;
 import de.flapdoodle.formula.calculate.functions.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class Calculate {
 	private Calculate() {
@@ -32,6 +33,18 @@ public abstract class Calculate {
 		return new WithDestination<>(destination);
 	}
 
+	public static WithDoubleDestination doubleValue(ValueSink<Double> destination) {
+		return new WithDoubleDestination(destination);
+	}
+
+	public static WithLongDestination longValue(ValueSink<Long> destination) {
+		return new WithLongDestination(destination);
+	}
+
+	public static WithIntDestination intValue(ValueSink<Integer> destination) {
+		return new WithIntDestination(destination);
+	}
+
 	public static class WithDestination<X> {
 		private final ValueSink<X> destination;
 
@@ -114,6 +127,14 @@ public abstract class Calculate {
 		public Map1<A, X> by(F1<A, X> transformation, String description) {
 			return Map1.with(a, destination, FN1.checkNull(F1.withLabel(transformation, description), a));
 		}
+
+		public AsyncMap1<A, X> byAsync(F1<A, CompletableFuture<X>> transformation) {
+			return AsyncMap1.with(a, destination, FN1.checkNull(transformation, a));
+		}
+
+		public AsyncMap1<A, X> byAsync(F1<A, CompletableFuture<X>> transformation, String description) {
+			return AsyncMap1.with(a, destination, FN1.checkNull(F1.withLabel(transformation, description), a));
+		}
 	}
 
 	public static class WithMap1Nullable<X, A> extends AbstractWithDirect<X, A> {
@@ -136,6 +157,14 @@ public abstract class Calculate {
 		public Map1<A, X> ifAllSetBy(F1<A, X> transformation, String description) {
 			return Map1.with(a, destination, FN1.mapOnlyIfNotNull(F1.withLabel(transformation, description)));
 		}
+
+		public AsyncMap1<A, X> byAsync(FN1<A, CompletableFuture<X>> transformation) {
+			return AsyncMap1.with(a, destination, transformation);
+		}
+
+		public AsyncMap1<A, X> byAsync(FN1<A, CompletableFuture<X>> transformation, String description) {
+			return AsyncMap1.with(a, destination, FN1.withLabel(transformation, description));
+		}
 	}
 
 	protected static abstract class WithMerge2Abstract<X, A, B> {
@@ -162,6 +191,14 @@ public abstract class Calculate {
 		public Merge2<A, B, X> by(F2<A, B, X> transformation, String description) {
 			return Merge2.with(a, b, destination, FN2.checkNull(F2.withLabel(transformation, description), a, b));
 		}
+
+		public AsyncMerge2<A, B, X> byAsync(F2<A, B, CompletableFuture<X>> transformation) {
+			return AsyncMerge2.with(a, b, destination, FN2.checkNull(transformation, a, b));
+		}
+
+		public AsyncMerge2<A, B, X> byAsync(F2<A, B, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge2.with(a, b, destination, FN2.checkNull(F2.withLabel(transformation, description), a, b));
+		}
 	}
 
 	public static class WithMerge2Nullables<X, A, B> extends WithMerge2Abstract<X, A, B> {
@@ -185,6 +222,13 @@ public abstract class Calculate {
 			return Merge2.with(a, b, destination, FN2.mapOnlyIfNotNull(F2.withLabel(transformation, description)));
 		}
 
+		public AsyncMerge2<A, B, X> byAsync(FN2<A, B, CompletableFuture<X>> transformation) {
+			return AsyncMerge2.with(a, b, destination, transformation);
+		}
+
+		public AsyncMerge2<A, B, X> byAsync(FN2<A, B, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge2.with(a, b, destination, FN2.withLabel(transformation, description));
+		}
 	}
 
 	protected static abstract class WithMerge3Abstract<X, A, B, C> {
@@ -213,6 +257,14 @@ public abstract class Calculate {
 		public Merge3<A, B, C, X> by(F3<A, B, C, X> transformation, String description) {
 			return Merge3.with(a, b, c, destination, FN3.checkNull(F3.withLabel(transformation, description), a, b, c));
 		}
+
+		public AsyncMerge3<A, B, C, X> byAsync(F3<A, B, C, CompletableFuture<X>> transformation) {
+			return AsyncMerge3.with(a, b, c, destination, FN3.checkNull(transformation, a, b, c));
+		}
+
+		public AsyncMerge3<A, B, C, X> byAsync(F3<A, B, C, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge3.with(a, b, c, destination, FN3.checkNull(F3.withLabel(transformation, description), a, b, c));
+		}
 	}
 
 	public static class WithMerge3Nullables<X, A, B, C> extends WithMerge3Abstract<X, A, B, C> {
@@ -235,6 +287,14 @@ public abstract class Calculate {
 		public Merge3<A, B, C, X> ifAllSetBy(F3<A, B, C, X> transformation, String description) {
 			return Merge3.with(a, b, c, destination, FN3.mapOnlyIfNotNull(F3.withLabel(transformation, description)));
 		}
+
+		public AsyncMerge3<A, B, C, X> byAsync(FN3<A, B, C, CompletableFuture<X>> transformation) {
+			return AsyncMerge3.with(a, b, c, destination, transformation);
+		}
+
+		public AsyncMerge3<A, B, C, X> byAsync(FN3<A, B, C, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge3.with(a, b, c, destination, FN3.withLabel(transformation, description));
+		}
 	}
 
 	protected static abstract class WithMerge4Abstract<X, A, B, C, D> {
@@ -265,6 +325,14 @@ public abstract class Calculate {
 		public Merge4<A, B, C, D, X> by(F4<A, B, C, D, X> transformation, String description) {
 			return Merge4.with(a, b, c, d, destination, FN4.checkNull(F4.withLabel(transformation, description), a, b, c, d));
 		}
+
+		public AsyncMerge4<A, B, C, D, X> byAsync(F4<A, B, C, D, CompletableFuture<X>> transformation) {
+			return AsyncMerge4.with(a, b, c, d, destination, FN4.checkNull(transformation, a, b, c, d));
+		}
+
+		public AsyncMerge4<A, B, C, D, X> byAsync(F4<A, B, C, D, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge4.with(a, b, c, d, destination, FN4.checkNull(F4.withLabel(transformation, description), a, b, c, d));
+		}
 	}
 
 	public static class WithMerge4Nullables<X, A, B, C, D> extends WithMerge4Abstract<X, A, B, C, D> {
@@ -287,6 +355,14 @@ public abstract class Calculate {
 		public Merge4<A, B, C, D, X> ifAllSetBy(F4<A, B, C, D, X> transformation, String description) {
 			return Merge4.with(a, b, c, d, destination, FN4.mapOnlyIfNotNull(F4.withLabel(transformation, description)));
 		}
+
+		public AsyncMerge4<A, B, C, D, X> byAsync(FN4<A, B, C, D, CompletableFuture<X>> transformation) {
+			return AsyncMerge4.with(a, b, c, d, destination, transformation);
+		}
+
+		public AsyncMerge4<A, B, C, D, X> byAsync(FN4<A, B, C, D, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge4.with(a, b, c, d, destination, FN4.withLabel(transformation, description));
+		}
 	}
 
 	protected static abstract class WithMerge5Abstract<X, A, B, C, D, E> {
@@ -319,6 +395,14 @@ public abstract class Calculate {
 		public Merge5<A, B, C, D, E, X> by(F5<A, B, C, D, E, X> transformation, String description) {
 			return Merge5.with(a, b, c, d, e, destination, FN5.checkNull(F5.withLabel(transformation, description), a, b, c, d, e));
 		}
+
+		public AsyncMerge5<A, B, C, D, E, X> byAsync(F5<A, B, C, D, E, CompletableFuture<X>> transformation) {
+			return AsyncMerge5.with(a, b, c, d, e, destination, FN5.checkNull(transformation, a, b, c, d, e));
+		}
+
+		public AsyncMerge5<A, B, C, D, E, X> byAsync(F5<A, B, C, D, E, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge5.with(a, b, c, d, e, destination, FN5.checkNull(F5.withLabel(transformation, description), a, b, c, d, e));
+		}
 	}
 
 	public static class WithMerge5Nullables<X, A, B, C, D, E> extends WithMerge5Abstract<X, A, B, C, D, E> {
@@ -341,6 +425,14 @@ public abstract class Calculate {
 		public Merge5<A, B, C, D, E, X> ifAllSetBy(F5<A, B, C, D, E, X> transformation, String description) {
 			return Merge5.with(a, b, c, d, e, destination, FN5.mapOnlyIfNotNull(F5.withLabel(transformation, description)));
 		}
+
+		public AsyncMerge5<A, B, C, D, E, X> byAsync(FN5<A, B, C, D, E, CompletableFuture<X>> transformation) {
+			return AsyncMerge5.with(a, b, c, d, e, destination, transformation);
+		}
+
+		public AsyncMerge5<A, B, C, D, E, X> byAsync(FN5<A, B, C, D, E, CompletableFuture<X>> transformation, String description) {
+			return AsyncMerge5.with(a, b, c, d, e, destination, FN5.withLabel(transformation, description));
+		}
 	}
 
 	public static class WithSourcesNullable<X, S> {
@@ -360,4 +452,370 @@ public abstract class Calculate {
 			return Aggregated.with(sourceList, destination, FN1.withLabel(aggregation, description));
 		}
 	}
+
+	public static class WithDoubleDestination {
+		private final ValueSink<Double> destination;
+
+		private WithDoubleDestination(ValueSink<Double> destination) {
+			this.destination = destination;
+		}
+
+		public WithDoubleMap1 requiring(ValueSource<Double> a) {
+			return new WithDoubleMap1(destination, a);
+		}
+
+		public WithDoubleMap1Nullable using(ValueSource<Double> a) {
+			return new WithDoubleMap1Nullable(destination, a);
+		}
+
+		public WithDoubleMerge2 requiring(ValueSource<Double> a, ValueSource<Double> b) {
+			return new WithDoubleMerge2(destination, a, b);
+		}
+
+		public WithDoubleMerge2Nullables using(ValueSource<Double> a, ValueSource<Double> b) {
+			return new WithDoubleMerge2Nullables(destination, a, b);
+		}
+
+		public WithDoubleSources aggregating(List<? extends ValueSource<Double>> sources) {
+			return new WithDoubleSources(destination, sources);
+		}
+	}
+
+	public static class WithDoubleMap1 {
+		private final ValueSink<Double> destination;
+		private final ValueSource<Double> a;
+
+		private WithDoubleMap1(ValueSink<Double> destination, ValueSource<Double> a) {
+			this.destination = destination;
+			this.a = a;
+		}
+
+		public DoubleMap1 by(DoubleF1 transformation) {
+			return DoubleMap1.with(a, destination, transformation).requiringSources();
+		}
+
+		public DoubleMap1 by(DoubleF1 transformation, String description) {
+			return DoubleMap1.with(a, destination, transformation).requiringSources().withDescription(description);
+		}
+	}
+
+	public static class WithDoubleMap1Nullable {
+		private final ValueSink<Double> destination;
+		private final ValueSource<Double> a;
+
+		private WithDoubleMap1Nullable(ValueSink<Double> destination, ValueSource<Double> a) {
+			this.destination = destination;
+			this.a = a;
+		}
+
+		public DoubleMap1 ifAllSetBy(DoubleF1 transformation) {
+			return DoubleMap1.with(a, destination, transformation);
+		}
+
+		public DoubleMap1 ifAllSetBy(DoubleF1 transformation, String description) {
+			return DoubleMap1.with(a, destination, transformation).withDescription(description);
+		}
+	}
+
+	public static class WithDoubleMerge2 {
+		private final ValueSink<Double> destination;
+		private final ValueSource<Double> a;
+		private final ValueSource<Double> b;
+
+		private WithDoubleMerge2(ValueSink<Double> destination, ValueSource<Double> a, ValueSource<Double> b) {
+			this.destination = destination;
+			this.a = a;
+			this.b = b;
+		}
+
+		public DoubleMerge2 by(DoubleF2 transformation) {
+			return DoubleMerge2.with(a, b, destination, transformation).requiringSources();
+		}
+
+		public DoubleMerge2 by(DoubleF2 transformation, String description) {
+			return DoubleMerge2.with(a, b, destination, transformation).requiringSources().withDescription(description);
+		}
+	}
+
+	public static class WithDoubleMerge2Nullables {
+		private final ValueSink<Double> destination;
+		private final ValueSource<Double> a;
+		private final ValueSource<Double> b;
+
+		private WithDoubleMerge2Nullables(ValueSink<Double> destination, ValueSource<Double> a, ValueSource<Double> b) {
+			this.destination = destination;
+			this.a = a;
+			this.b = b;
+		}
+
+		public DoubleMerge2 ifAllSetBy(DoubleF2 transformation) {
+			return DoubleMerge2.with(a, b, destination, transformation);
+		}
+
+		public DoubleMerge2 ifAllSetBy(DoubleF2 transformation, String description) {
+			return DoubleMerge2.with(a, b, destination, transformation).withDescription(description);
+		}
+	}
+
+	public static class WithDoubleSources {
+		private final ValueSink<Double> destination;
+		private final List<? extends ValueSource<Double>> sourceList;
+
+		private WithDoubleSources(ValueSink<Double> destination, List<? extends ValueSource<Double>> sourceList) {
+			this.destination = destination;
+			this.sourceList = sourceList;
+		}
+
+		public DoubleAggregated by(DoubleAggregation aggregation) {
+			return DoubleAggregated.with(sourceList, destination, aggregation);
+		}
+
+		public DoubleAggregated by(DoubleAggregation aggregation, String description) {
+			return DoubleAggregated.with(sourceList, destination, aggregation).withDescription(description);
+		}
+	}
+
+	public static class WithLongDestination {
+		private final ValueSink<Long> destination;
+
+		private WithLongDestination(ValueSink<Long> destination) {
+			this.destination = destination;
+		}
+
+		public WithLongMap1 requiring(ValueSource<Long> a) {
+			return new WithLongMap1(destination, a);
+		}
+
+		public WithLongMap1Nullable using(ValueSource<Long> a) {
+			return new WithLongMap1Nullable(destination, a);
+		}
+
+		public WithLongMerge2 requiring(ValueSource<Long> a, ValueSource<Long> b) {
+			return new WithLongMerge2(destination, a, b);
+		}
+
+		public WithLongMerge2Nullables using(ValueSource<Long> a, ValueSource<Long> b) {
+			return new WithLongMerge2Nullables(destination, a, b);
+		}
+
+		public WithLongSources aggregating(List<? extends ValueSource<Long>> sources) {
+			return new WithLongSources(destination, sources);
+		}
+	}
+
+	public static class WithLongMap1 {
+		private final ValueSink<Long> destination;
+		private final ValueSource<Long> a;
+
+		private WithLongMap1(ValueSink<Long> destination, ValueSource<Long> a) {
+			this.destination = destination;
+			this.a = a;
+		}
+
+		public LongMap1 by(LongF1 transformation) {
+			return LongMap1.with(a, destination, transformation).requiringSources();
+		}
+
+		public LongMap1 by(LongF1 transformation, String description) {
+			return LongMap1.with(a, destination, transformation).requiringSources().withDescription(description);
+		}
+	}
+
+	public static class WithLongMap1Nullable {
+		private final ValueSink<Long> destination;
+		private final ValueSource<Long> a;
+
+		private WithLongMap1Nullable(ValueSink<Long> destination, ValueSource<Long> a) {
+			this.destination = destination;
+			this.a = a;
+		}
+
+		public LongMap1 ifAllSetBy(LongF1 transformation) {
+			return LongMap1.with(a, destination, transformation);
+		}
+
+		public LongMap1 ifAllSetBy(LongF1 transformation, String description) {
+			return LongMap1.with(a, destination, transformation).withDescription(description);
+		}
+	}
+
+	public static class WithLongMerge2 {
+		private final ValueSink<Long> destination;
+		private final ValueSource<Long> a;
+		private final ValueSource<Long> b;
+
+		private WithLongMerge2(ValueSink<Long> destination, ValueSource<Long> a, ValueSource<Long> b) {
+			this.destination = destination;
+			this.a = a;
+			this.b = b;
+		}
+
+		public LongMerge2 by(LongF2 transformation) {
+			return LongMerge2.with(a, b, destination, transformation).requiringSources();
+		}
+
+		public LongMerge2 by(LongF2 transformation, String description) {
+			return LongMerge2.with(a, b, destination, transformation).requiringSources().withDescription(description);
+		}
+	}
+
+	public static class WithLongMerge2Nullables {
+		private final ValueSink<Long> destination;
+		private final ValueSource<Long> a;
+		private final ValueSource<Long> b;
+
+		private WithLongMerge2Nullables(ValueSink<Long> destination, ValueSource<Long> a, ValueSource<Long> b) {
+			this.destination = destination;
+			this.a = a;
+			this.b = b;
+		}
+
+		public LongMerge2 ifAllSetBy(LongF2 transformation) {
+			return LongMerge2.with(a, b, destination, transformation);
+		}
+
+		public LongMerge2 ifAllSetBy(LongF2 transformation, String description) {
+			return LongMerge2.with(a, b, destination, transformation).withDescription(description);
+		}
+	}
+
+	public static class WithLongSources {
+		private final ValueSink<Long> destination;
+		private final List<? extends ValueSource<Long>> sourceList;
+
+		private WithLongSources(ValueSink<Long> destination, List<? extends ValueSource<Long>> sourceList) {
+			this.destination = destination;
+			this.sourceList = sourceList;
+		}
+
+		public LongAggregated by(LongAggregation aggregation) {
+			return LongAggregated.with(sourceList, destination, aggregation);
+		}
+
+		public LongAggregated by(LongAggregation aggregation, String description) {
+			return LongAggregated.with(sourceList, destination, aggregation).withDescription(description);
+		}
+	}
+
+	public static class WithIntDestination {
+		private final ValueSink<Integer> destination;
+
+		private WithIntDestination(ValueSink<Integer> destination) {
+			this.destination = destination;
+		}
+
+		public WithIntMap1 requiring(ValueSource<Integer> a) {
+			return new WithIntMap1(destination, a);
+		}
+
+		public WithIntMap1Nullable using(ValueSource<Integer> a) {
+			return new WithIntMap1Nullable(destination, a);
+		}
+
+		public WithIntMerge2 requiring(ValueSource<Integer> a, ValueSource<Integer> b) {
+			return new WithIntMerge2(destination, a, b);
+		}
+
+		public WithIntMerge2Nullables using(ValueSource<Integer> a, ValueSource<Integer> b) {
+			return new WithIntMerge2Nullables(destination, a, b);
+		}
+
+		public WithIntSources aggregating(List<? extends ValueSource<Integer>> sources) {
+			return new WithIntSources(destination, sources);
+		}
+	}
+
+	public static class WithIntMap1 {
+		private final ValueSink<Integer> destination;
+		private final ValueSource<Integer> a;
+
+		private WithIntMap1(ValueSink<Integer> destination, ValueSource<Integer> a) {
+			this.destination = destination;
+			this.a = a;
+		}
+
+		public IntMap1 by(IntF1 transformation) {
+			return IntMap1.with(a, destination, transformation).requiringSources();
+		}
+
+		public IntMap1 by(IntF1 transformation, String description) {
+			return IntMap1.with(a, destination, transformation).requiringSources().withDescription(description);
+		}
+	}
+
+	public static class WithIntMap1Nullable {
+		private final ValueSink<Integer> destination;
+		private final ValueSource<Integer> a;
+
+		private WithIntMap1Nullable(ValueSink<Integer> destination, ValueSource<Integer> a) {
+			this.destination = destination;
+			this.a = a;
+		}
+
+		public IntMap1 ifAllSetBy(IntF1 transformation) {
+			return IntMap1.with(a, destination, transformation);
+		}
+
+		public IntMap1 ifAllSetBy(IntF1 transformation, String description) {
+			return IntMap1.with(a, destination, transformation).withDescription(description);
+		}
+	}
+
+	public static class WithIntMerge2 {
+		private final ValueSink<Integer> destination;
+		private final ValueSource<Integer> a;
+		private final ValueSource<Integer> b;
+
+		private WithIntMerge2(ValueSink<Integer> destination, ValueSource<Integer> a, ValueSource<Integer> b) {
+			this.destination = destination;
+			this.a = a;
+			this.b = b;
+		}
+
+		public IntMerge2 by(IntF2 transformation) {
+			return IntMerge2.with(a, b, destination, transformation).requiringSources();
+		}
+
+		public IntMerge2 by(IntF2 transformation, String description) {
+			return IntMerge2.with(a, b, destination, transformation).requiringSources().withDescription(description);
+		}
+	}
+
+	public static class WithIntMerge2Nullables {
+		private final ValueSink<Integer> destination;
+		private final ValueSource<Integer> a;
+		private final ValueSource<Integer> b;
+
+		private WithIntMerge2Nullables(ValueSink<Integer> destination, ValueSource<Integer> a, ValueSource<Integer> b) {
+			this.destination = destination;
+			this.a = a;
+			this.b = b;
+		}
+
+		public IntMerge2 ifAllSetBy(IntF2 transformation) {
+			return IntMerge2.with(a, b, destination, transformation);
+		}
+
+		public IntMerge2 ifAllSetBy(IntF2 transformation, String description) {
+			return IntMerge2.with(a, b, destination, transformation).withDescription(description);
+		}
+	}
+
+	public static class WithIntSources {
+		private final ValueSink<Integer> destination;
+		private final List<? extends ValueSource<Integer>> sourceList;
+
+		private WithIntSources(ValueSink<Integer> destination, List<? extends ValueSource<Integer>> sourceList) {
+			this.destination = destination;
+			this.sourceList = sourceList;
+		}
+
+		public IntAggregated by(IntAggregation aggregation) {
+			return IntAggregated.with(sourceList, destination, aggregation);
+		}
+
+		public IntAggregated by(IntAggregation aggregation, String description) {
+			return IntAggregated.with(sourceList, destination, aggregation).withDescription(description);
+		}
+	}
 }
@@ -19,9 +19,11 @@ package de.flapdoodle.formula.calculate;
 import de.flapdoodle.formula.Value;
 import de.flapdoodle.formula.ValueSource;
 import org.immutables.value.Value.Auxiliary;
+import org.immutables.value.Value.Default;
 import org.immutables.value.Value.Lazy;
 import org.immutables.value.Value.Parameter;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 public interface Calculation<D> {
@@ -34,4 +36,21 @@ public interface Calculation<D> {
 	@Auxiliary
 	D calculate(ValueLookup values);
 
+	// same sources, same result: the solver may reuse results of earlier calculations
+	@Default
+	default boolean isPure() {
+		return false;
+	}
+
+	// calculations with equal keys calculate the same value, null if unknown
+	default @Nullable Object resultKey() {
+		return null;
+	}
+
+	// expected duration in microseconds, used to schedule expensive calculations first
+	@Default
+	default double declaredCost() {
+		return 1.0;
+	}
+
 }
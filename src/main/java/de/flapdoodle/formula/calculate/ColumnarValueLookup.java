@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate;
+
+import com.google.common.base.Preconditions;
+import de.flapdoodle.formula.Value;
+import org.immutables.value.Value.Auxiliary;
+import org.immutables.value.Value.Immutable;
+import org.immutables.value.Value.Parameter;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Immutable
+public abstract class ColumnarValueLookup implements BatchValueLookup, HasSetOfKnownValues {
+	@Override
+	@Parameter
+	public abstract int size();
+
+	// one list for each value, null entries are allowed
+	protected abstract Map<Value<?>, List<?>> columns();
+
+	@org.immutables.value.Value.Check
+	protected void check() {
+		Preconditions.checkArgument(size() >= 0, "size is negative: %s", size());
+		columns().forEach((id, column) -> Preconditions.checkArgument(column.size() == size(),
+			"column %s has %s rows, expected %s", id, column.size(), size()));
+	}
+
+	@Override
+	@org.immutables.value.Value.Lazy
+	public Set<Value<?>> keySet() {
+		return columns().keySet();
+	}
+
+	@Override
+	@Auxiliary
+	@SuppressWarnings("unchecked")
+	public <T> @Nullable T get(Value<T> id, int row) {
+		List<?> column = columns().get(id);
+		Preconditions.checkArgument(column != null, "value not set: %s", id);
+		return (T) column.get(row);
+	}
+
+	public <T> ColumnarValueLookup with(Value<T> id, List<? extends T> column) {
+		Preconditions.checkArgument(!columns().containsKey(id), "multiple entries with following ids: %s", id);
+		return ImmutableColumnarValueLookup.builder()
+			.from(this)
+			.putColumns(id, column)
+			.build();
+	}
+
+	public static ColumnarValueLookup empty(int size) {
+		return ImmutableColumnarValueLookup.of(size);
+	}
+}
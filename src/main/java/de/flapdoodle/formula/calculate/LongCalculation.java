@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate;
+
+import org.immutables.value.Value.Auxiliary;
+
+import javax.annotation.Nullable;
+
+// the solver calls calculateLong directly and stores the result without boxing
+public interface LongCalculation extends Calculation<Long> {
+	// false if the result is null
+	@Auxiliary
+	boolean isDefined(PrimitiveValueLookup values);
+
+	@Auxiliary
+	long calculateLong(PrimitiveValueLookup values);
+
+	@Override
+	@Auxiliary
+	default @Nullable Long calculate(ValueLookup values) {
+		PrimitiveValueLookup lookup = PrimitiveValueLookup.of(values);
+		return isDefined(lookup) ? calculateLong(lookup) : null;
+	}
+}
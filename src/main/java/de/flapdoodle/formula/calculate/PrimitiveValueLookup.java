@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate;
+
+import com.google.common.base.Preconditions;
+import de.flapdoodle.formula.Value;
+
+import javax.annotation.Nullable;
+
+// solver implementations read primitive values without boxing
+public interface PrimitiveValueLookup extends ValueLookup {
+	default boolean isSet(Value<?> id) {
+		return get(id) != null;
+	}
+
+	default double getDouble(Value<Double> id) {
+		return Preconditions.checkNotNull(get(id), "value %s not set", id);
+	}
+
+	default long getLong(Value<Long> id) {
+		return Preconditions.checkNotNull(get(id), "value %s not set", id);
+	}
+
+	default int getInt(Value<Integer> id) {
+		return Preconditions.checkNotNull(get(id), "value %s not set", id);
+	}
+
+	static PrimitiveValueLookup of(ValueLookup lookup) {
+		if (lookup instanceof PrimitiveValueLookup) {
+			return (PrimitiveValueLookup) lookup;
+		}
+		return new PrimitiveValueLookup() {
+			@Override
+			public <T> @Nullable T get(Value<T> id) {
+				return lookup.get(id);
+			}
+		};
+	}
+}
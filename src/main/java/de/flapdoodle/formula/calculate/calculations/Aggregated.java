@@ -50,11 +50,24 @@ public abstract class Aggregated<S, X> implements Calculation<X>, HasHumanReadab
 		return aggregation().apply(sourceValues);
 	}
 
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, aggregation(), sourceList());
+	}
+
 	@Override
 	public String asHumanReadable() {
 		return HasHumanReadableLabel.asHumanReadable(aggregation());
 	}
 
+	public Aggregated<S, X> pure() {
+		return ImmutableAggregated.copyOf(this).withIsPure(true);
+	}
+
+	public Aggregated<S, X> withCost(double cost) {
+		return ImmutableAggregated.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <S, X> Aggregated<S, X> with(
 		List<? extends ValueSource<S>> sourceList,
 		ValueSink<X> destination,
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate.calculations;
+
+import com.google.common.collect.ImmutableList;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.Calculation;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+// same type, same function, same sources in the same order, the destination is not part of it
+@Value.Immutable(builder = false)
+public abstract class CalculationKey {
+	@Value.Parameter
+	protected abstract Class<?> type();
+
+	@Value.Parameter
+	protected abstract Object transformation();
+
+	@Value.Parameter
+	protected abstract List<ValueSource<?>> sources();
+
+	static CalculationKey of(Calculation<?> calculation, Object transformation, List<? extends ValueSource<?>> sources) {
+		return ImmutableCalculationKey.of(calculation.getClass(), transformation, sources);
+	}
+
+	static CalculationKey of(Calculation<?> calculation, Object transformation, ValueSource<?> ... sources) {
+		return of(calculation, transformation, ImmutableList.copyOf(sources));
+	}
+}
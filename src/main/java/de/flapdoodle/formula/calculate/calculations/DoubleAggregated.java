@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate.calculations;
+
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.ValueSink;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.DoubleCalculation;
+import de.flapdoodle.formula.calculate.PrimitiveValueLookup;
+import de.flapdoodle.formula.calculate.functions.DoubleAggregation;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import org.immutables.value.Value;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// sources which are not set are skipped
+@Value.Immutable(builder = false)
+public abstract class DoubleAggregated implements DoubleCalculation, HasHumanReadableLabel {
+	@Value.Parameter
+	protected abstract List<ValueSource<Double>> sourceList();
+
+	@Value.Parameter
+	protected abstract DoubleAggregation transformation();
+
+	protected abstract Optional<String> label();
+
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), sourceList());
+	}
+
+	@Override
+	public String asHumanReadable() {
+		return label().orElseGet(() -> HasHumanReadableLabel.asHumanReadable(transformation()));
+	}
+
+	public DoubleAggregated pure() {
+		return ImmutableDoubleAggregated.copyOf(this).withIsPure(true);
+	}
+
+	public DoubleAggregated withCost(double cost) {
+		return ImmutableDoubleAggregated.copyOf(this).withDeclaredCost(cost);
+	}
+
+	public DoubleAggregated withDescription(String description) {
+		return ImmutableDoubleAggregated.copyOf(this).withLabel(description);
+	}
+
+	@Override
+	public Set<ValueSource<Double>> sources() {
+		return ImmutableSet.copyOf(sourceList());
+	}
+
+	@Override
+	public boolean isDefined(PrimitiveValueLookup values) {
+		return true;
+	}
+
+	@Override
+	public double calculateDouble(PrimitiveValueLookup values) {
+		List<ValueSource<Double>> sources = sourceList();
+		double[] set = new double[sources.size()];
+		int count = 0;
+		for (ValueSource<Double> source : sources) {
+			if (values.isSet(source)) {
+				set[count++] = values.getDouble(source);
+			}
+		}
+		return transformation().apply(count == set.length ? set : Arrays.copyOf(set, count));
+	}
+
+	public static DoubleAggregated with(List<? extends ValueSource<Double>> sourceList, ValueSink<Double> destination, DoubleAggregation transformation) {
+		return ImmutableDoubleAggregated.of(destination, sourceList, transformation);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate.calculations;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.ValueSink;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.DoubleCalculation;
+import de.flapdoodle.formula.calculate.PrimitiveValueLookup;
+import de.flapdoodle.formula.calculate.functions.DoubleF1;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+import java.util.Set;
+
+@Value.Immutable(builder = false)
+public abstract class DoubleMap1 implements DoubleCalculation, HasHumanReadableLabel {
+	@Value.Parameter
+	protected abstract ValueSource<Double> source();
+
+	@Value.Parameter
+	protected abstract DoubleF1 transformation();
+
+	protected abstract Optional<String> label();
+
+	// a missing source fails instead of giving a null result
+	@Value.Default
+	protected boolean sourcesRequired() {
+		return false;
+	}
+
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, ImmutableList.of(transformation(), sourcesRequired()), source());
+	}
+
+	@Override
+	public String asHumanReadable() {
+		return label().orElseGet(() -> HasHumanReadableLabel.asHumanReadable(transformation()));
+	}
+
+	public DoubleMap1 pure() {
+		return ImmutableDoubleMap1.copyOf(this).withIsPure(true);
+	}
+
+	public DoubleMap1 requiringSources() {
+		return ImmutableDoubleMap1.copyOf(this).withSourcesRequired(true);
+	}
+
+	public DoubleMap1 withCost(double cost) {
+		return ImmutableDoubleMap1.copyOf(this).withDeclaredCost(cost);
+	}
+
+	public DoubleMap1 withDescription(String description) {
+		return ImmutableDoubleMap1.copyOf(this).withLabel(description);
+	}
+
+	@Override
+	public Set<ValueSource<?>> sources() {
+		return ImmutableSet.of(source());
+	}
+
+	@Override
+	public boolean isDefined(PrimitiveValueLookup values) {
+		return PrimitiveSources.isSet(values, sourcesRequired(), this, source());
+	}
+
+	@Override
+	public double calculateDouble(PrimitiveValueLookup values) {
+		return transformation().apply(values.getDouble(source()));
+	}
+
+	public static DoubleMap1 with(ValueSource<Double> source, ValueSink<Double> destination, DoubleF1 transformation) {
+		return ImmutableDoubleMap1.of(destination, source, transformation);
+	}
+}
@@ -49,6 +49,14 @@ public abstract class Generated<X> implements Calculation<X>, HasHumanReadableLa
 		return HasHumanReadableLabel.asHumanReadable(transformation());
 	}
 
+	public Generated<X> pure() {
+		return ImmutableGenerated.copyOf(this).withIsPure(true);
+	}
+
+	public Generated<X> withCost(double cost) {
+		return ImmutableGenerated.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <X> Generated<X> with(
 		ValueSink<X> destination,
 		FN0<X> transformation
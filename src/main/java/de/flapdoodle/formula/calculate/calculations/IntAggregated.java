@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate.calculations;
+
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.ValueSink;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.IntCalculation;
+import de.flapdoodle.formula.calculate.PrimitiveValueLookup;
+import de.flapdoodle.formula.calculate.functions.IntAggregation;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import org.immutables.value.Value;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// sources which are not set are skipped
+@Value.Immutable(builder = false)
+public abstract class IntAggregated implements IntCalculation, HasHumanReadableLabel {
+	@Value.Parameter
+	protected abstract List<ValueSource<Integer>> sourceList();
+
+	@Value.Parameter
+	protected abstract IntAggregation transformation();
+
+	protected abstract Optional<String> label();
+
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), sourceList());
+	}
+
+	@Override
+	public String asHumanReadable() {
+		return label().orElseGet(() -> HasHumanReadableLabel.asHumanReadable(transformation()));
+	}
+
+	public IntAggregated pure() {
+		return ImmutableIntAggregated.copyOf(this).withIsPure(true);
+	}
+
+	public IntAggregated withCost(double cost) {
+		return ImmutableIntAggregated.copyOf(this).withDeclaredCost(cost);
+	}
+
+	public IntAggregated withDescription(String description) {
+		return ImmutableIntAggregated.copyOf(this).withLabel(description);
+	}
+
+	@Override
+	public Set<ValueSource<Integer>> sources() {
+		return ImmutableSet.copyOf(sourceList());
+	}
+
+	@Override
+	public boolean isDefined(PrimitiveValueLookup values) {
+		return true;
+	}
+
+	@Override
+	public int calculateInt(PrimitiveValueLookup values) {
+		List<ValueSource<Integer>> sources = sourceList();
+		int[] set = new int[sources.size()];
+		int count = 0;
+		for (ValueSource<Integer> source : sources) {
+			if (values.isSet(source)) {
+				set[count++] = values.getInt(source);
+			}
+		}
+		return transformation().apply(count == set.length ? set : Arrays.copyOf(set, count));
+	}
+
+	public static IntAggregated with(List<? extends ValueSource<Integer>> sourceList, ValueSink<Integer> destination, IntAggregation transformation) {
+		return ImmutableIntAggregated.of(destination, sourceList, transformation);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate.calculations;
+
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.ValueSink;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.LongCalculation;
+import de.flapdoodle.formula.calculate.PrimitiveValueLookup;
+import de.flapdoodle.formula.calculate.functions.LongAggregation;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import org.immutables.value.Value;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// sources which are not set are skipped
+@Value.Immutable(builder = false)
+public abstract class LongAggregated implements LongCalculation, HasHumanReadableLabel {
+	@Value.Parameter
+	protected abstract List<ValueSource<Long>> sourceList();
+
+	@Value.Parameter
+	protected abstract LongAggregation transformation();
+
+	protected abstract Optional<String> label();
+
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), sourceList());
+	}
+
+	@Override
+	public String asHumanReadable() {
+		return label().orElseGet(() -> HasHumanReadableLabel.asHumanReadable(transformation()));
+	}
+
+	public LongAggregated pure() {
+		return ImmutableLongAggregated.copyOf(this).withIsPure(true);
+	}
+
+	public LongAggregated withCost(double cost) {
+		return ImmutableLongAggregated.copyOf(this).withDeclaredCost(cost);
+	}
+
+	public LongAggregated withDescription(String description) {
+		return ImmutableLongAggregated.copyOf(this).withLabel(description);
+	}
+
+	@Override
+	public Set<ValueSource<Long>> sources() {
+		return ImmutableSet.copyOf(sourceList());
+	}
+
+	@Override
+	public boolean isDefined(PrimitiveValueLookup values) {
+		return true;
+	}
+
+	@Override
+	public long calculateLong(PrimitiveValueLookup values) {
+		List<ValueSource<Long>> sources = sourceList();
+		long[] set = new long[sources.size()];
+		int count = 0;
+		for (ValueSource<Long> source : sources) {
+			if (values.isSet(source)) {
+				set[count++] = values.getLong(source);
+			}
+		}
+		return transformation().apply(count == set.length ? set : Arrays.copyOf(set, count));
+	}
+
+	public static LongAggregated with(List<? extends ValueSource<Long>> sourceList, ValueSink<Long> destination, LongAggregation transformation) {
+		return ImmutableLongAggregated.of(destination, sourceList, transformation);
+	}
+}
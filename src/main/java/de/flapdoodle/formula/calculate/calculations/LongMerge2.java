@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate.calculations;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.ValueSink;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.LongCalculation;
+import de.flapdoodle.formula.calculate.PrimitiveValueLookup;
+import de.flapdoodle.formula.calculate.functions.LongF2;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+import java.util.Set;
+
+@Value.Immutable(builder = false)
+public abstract class LongMerge2 implements LongCalculation, HasHumanReadableLabel {
+	@Value.Parameter
+	protected abstract ValueSource<Long> a();
+
+	@Value.Parameter
+	protected abstract ValueSource<Long> b();
+
+	@Value.Parameter
+	protected abstract LongF2 transformation();
+
+	protected abstract Optional<String> label();
+
+	// a missing source fails instead of giving a null result
+	@Value.Default
+	protected boolean sourcesRequired() {
+		return false;
+	}
+
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, ImmutableList.of(transformation(), sourcesRequired()), a(), b());
+	}
+
+	@Override
+	public String asHumanReadable() {
+		return label().orElseGet(() -> HasHumanReadableLabel.asHumanReadable(transformation()));
+	}
+
+	public LongMerge2 pure() {
+		return ImmutableLongMerge2.copyOf(this).withIsPure(true);
+	}
+
+	public LongMerge2 requiringSources() {
+		return ImmutableLongMerge2.copyOf(this).withSourcesRequired(true);
+	}
+
+	public LongMerge2 withCost(double cost) {
+		return ImmutableLongMerge2.copyOf(this).withDeclaredCost(cost);
+	}
+
+	public LongMerge2 withDescription(String description) {
+		return ImmutableLongMerge2.copyOf(this).withLabel(description);
+	}
+
+	@Override
+	public Set<ValueSource<?>> sources() {
+		return ImmutableSet.of(a(), b());
+	}
+
+	@Override
+	public boolean isDefined(PrimitiveValueLookup values) {
+		return PrimitiveSources.isSet(values, sourcesRequired(), this, a(), b());
+	}
+
+	@Override
+	public long calculateLong(PrimitiveValueLookup values) {
+		return transformation().apply(values.getLong(a()), values.getLong(b()));
+	}
+
+	public static LongMerge2 with(ValueSource<Long> a, ValueSource<Long> b, ValueSink<Long> destination, LongF2 transformation) {
+		return ImmutableLongMerge2.of(destination, a, b, transformation);
+	}
+}
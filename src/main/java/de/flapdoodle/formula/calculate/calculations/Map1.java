@@ -25,6 +25,7 @@ import de.flapdoodle.formula.calculate.functions.FN1;
 import de.flapdoodle.formula.types.HasHumanReadableLabel;
 import org.immutables.value.Value;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 @Value.Immutable(builder = false)
@@ -45,11 +46,33 @@ public abstract class Map1<A, X> implements Calculation<X>, HasHumanReadableLabe
 		return transformation().apply(values.get(source()));
 	}
 
+	// same value as its source
+	public boolean isIdentity() {
+		return transformation() instanceof FN1.FN1Identity;
+	}
+
+	public @Nullable X apply(@Nullable A value) {
+		return transformation().apply(value);
+	}
+
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), source());
+	}
+
 	@Override
 	public String asHumanReadable() {
 		return HasHumanReadableLabel.asHumanReadable(transformation());
 	}
 
+	public Map1<A, X> pure() {
+		return ImmutableMap1.copyOf(this).withIsPure(true);
+	}
+
+	public Map1<A, X> withCost(double cost) {
+		return ImmutableMap1.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <A, X> Map1<A, X> with(
 		ValueSource<A> source,
 		ValueSink<X> destination,
@@ -48,11 +48,24 @@ public abstract class Merge2<A, B, X> implements Calculation<X>, HasHumanReadabl
 		return transformation().apply(values.get(a()), values.get(b()));
 	}
 
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), a(), b());
+	}
+
 	@Override
 	public String asHumanReadable() {
 		return HasHumanReadableLabel.asHumanReadable(transformation());
 	}
 
+	public Merge2<A, B, X> pure() {
+		return ImmutableMerge2.copyOf(this).withIsPure(true);
+	}
+
+	public Merge2<A, B, X> withCost(double cost) {
+		return ImmutableMerge2.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <A, B, X> Merge2<A, B, X> with(
 		ValueSource<A> a,
 		ValueSource<B> b,
@@ -51,11 +51,24 @@ public abstract class Merge3<A, B, C, X> implements Calculation<X>, HasHumanRead
 		return transformation().apply(values.get(a()), values.get(b()), values.get(c()));
 	}
 
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), a(), b(), c());
+	}
+
 	@Override
 	public String asHumanReadable() {
 		return HasHumanReadableLabel.asHumanReadable(transformation());
 	}
 
+	public Merge3<A, B, C, X> pure() {
+		return ImmutableMerge3.copyOf(this).withIsPure(true);
+	}
+
+	public Merge3<A, B, C, X> withCost(double cost) {
+		return ImmutableMerge3.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <A, B, C, X> Merge3<A, B, C, X> with(
 		ValueSource<A> a,
 		ValueSource<B> b,
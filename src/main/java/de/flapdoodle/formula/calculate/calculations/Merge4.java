@@ -54,11 +54,24 @@ public abstract class Merge4<A, B, C, D, X> implements Calculation<X>, HasHumanR
 		return transformation().apply(values.get(a()), values.get(b()), values.get(c()), values.get(d()));
 	}
 
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), a(), b(), c(), d());
+	}
+
 	@Override
 	public String asHumanReadable() {
 		return HasHumanReadableLabel.asHumanReadable(transformation());
 	}
 
+	public Merge4<A, B, C, D, X> pure() {
+		return ImmutableMerge4.copyOf(this).withIsPure(true);
+	}
+
+	public Merge4<A, B, C, D, X> withCost(double cost) {
+		return ImmutableMerge4.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <A, B, C, D, X> Merge4<A, B, C, D, X> with(
 		ValueSource<A> a,
 		ValueSource<B> b,
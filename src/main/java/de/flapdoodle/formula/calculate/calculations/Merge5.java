@@ -57,11 +57,24 @@ public abstract class Merge5<A, B, C, D, E, X> implements Calculation<X>, HasHum
 		return transformation().apply(values.get(a()), values.get(b()), values.get(c()), values.get(d()), values.get(e()));
 	}
 
+	@Override
+	public CalculationKey resultKey() {
+		return CalculationKey.of(this, transformation(), a(), b(), c(), d(), e());
+	}
+
 	@Override
 	public String asHumanReadable() {
 		return HasHumanReadableLabel.asHumanReadable(transformation());
 	}
 
+	public Merge5<A, B, C, D, E, X> pure() {
+		return ImmutableMerge5.copyOf(this).withIsPure(true);
+	}
+
+	public Merge5<A, B, C, D, E, X> withCost(double cost) {
+		return ImmutableMerge5.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <A, B, C, D, E, X> Merge5<A, B, C, D, E, X> with(
 		ValueSource<A> a,
 		ValueSource<B> b,
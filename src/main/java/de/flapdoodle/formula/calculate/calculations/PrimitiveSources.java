@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.calculate.calculations;
+
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.PrimitiveValueLookup;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+
+// required sources fail like FN1.checkNull, otherwise a missing source gives a null result
+abstract class PrimitiveSources {
+	private PrimitiveSources() {
+		// no instance
+	}
+
+	static boolean isSet(PrimitiveValueLookup values, boolean required, HasHumanReadableLabel calculation, ValueSource<?> a) {
+		if (values.isSet(a)) {
+			return true;
+		}
+		if (required) {
+			throw new NullPointerException(calculation.asHumanReadable() + ": " + HasHumanReadableLabel.asHumanReadable(a) + " is null");
+		}
+		return false;
+	}
+
+	static boolean isSet(PrimitiveValueLookup values, boolean required, HasHumanReadableLabel calculation, ValueSource<?> a, ValueSource<?> b) {
+		return isSet(values, required, calculation, a) && isSet(values, required, calculation, b);
+	}
+}
@@ -18,6 +18,7 @@ package de.flapdoodle.formula.rules;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import de.flapdoodle.formula.Value;
 import de.flapdoodle.formula.calculate.Calculation;
 import de.flapdoodle.formula.types.Checks;
@@ -49,6 +50,21 @@ public abstract class CalculationMap {
 			.collect(ImmutableMap.toImmutableMap(Calculation::destination, Function.identity()));
 	}
 
+	// independent of the order of entries
+	@Lazy
+	public int fingerprint() {
+		return entries().hashCode();
+	}
+
+	public boolean sameEntriesAs(CalculationMap other) {
+		return fingerprint() == other.fingerprint() && entries().equals(other.entries());
+	}
+
+	@Lazy
+	protected Set<Calculation<?>> entries() {
+		return ImmutableSet.copyOf(all());
+	}
+
 	@Lazy
 	public Set<Value<?>> keys() {
 		return map().keySet();
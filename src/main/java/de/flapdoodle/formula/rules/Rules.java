@@ -29,6 +29,18 @@ public abstract class Rules {
 	@Value.Parameter
 	public abstract ValidationMap validations();
 
+	// same fingerprint for rules with same calculations and validations, regardless of order
+	@Value.Lazy
+	public int fingerprint() {
+		return 31 * calculations().fingerprint() + validations().fingerprint();
+	}
+
+	public boolean sameRulesAs(Rules other) {
+		return fingerprint() == other.fingerprint()
+			&& calculations().sameEntriesAs(other.calculations())
+			&& validations().sameEntriesAs(other.validations());
+	}
+
 	public ImmutableRules addCalculations(Iterable<? extends Calculation<?>> calculations) {
 		return ImmutableRules.copyOf(this)
 			.withCalculations(calculations().addAll(calculations));
@@ -18,6 +18,7 @@ package de.flapdoodle.formula.rules;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import de.flapdoodle.formula.Value;
 import de.flapdoodle.formula.types.Checks;
 import de.flapdoodle.formula.validation.Validation;
@@ -47,6 +48,21 @@ public abstract class ValidationMap {
 			.collect(ImmutableMap.toImmutableMap(Validation::destination, Function.identity()));
 	}
 
+	// independent of the order of entries
+	@Lazy
+	public int fingerprint() {
+		return entries().hashCode();
+	}
+
+	public boolean sameEntriesAs(ValidationMap other) {
+		return fingerprint() == other.fingerprint() && entries().equals(other.entries());
+	}
+
+	@Lazy
+	protected Set<Validation<?>> entries() {
+		return ImmutableSet.copyOf(all());
+	}
+
 	@Lazy
 	public Set<Value<?>> keys() {
 		return map().keySet();
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.calculate.ValueLookup;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// composes one future for each slot, independent async calculations overlap
+final class AsyncSolver {
+	private AsyncSolver() {
+		// no instance
+	}
+
+	static CompletableFuture<SlotContext> solve(SlotContext context, ValueLookup lookup, SolveOptions options) {
+		SolverPlan plan = context.plan();
+		Optional<Executor> executor = options.executor();
+		SolveLimits limits = new SolveLimits(options);
+		CompletableFuture<?>[] done = new CompletableFuture<?>[plan.size()];
+
+		for (SolverPlan.Step<?> step : plan.steps()) {
+			CompletableFuture<Void> sourcesDone = allOf(done, step.predecessors);
+			done[step.slot] = executor.isPresent()
+				? sourcesDone.thenComposeAsync(ignore -> evaluate(step, context, lookup, options, limits), executor.get())
+				: sourcesDone.thenCompose(ignore -> evaluate(step, context, lookup, options, limits));
+		}
+
+		return CompletableFuture.allOf(done)
+			.thenApply(ignore -> {
+				if (limits.reached()) {
+					context.stop(limits);
+				}
+				return context;
+			});
+	}
+
+	// once a limit is reached, remaining slots are skipped
+	private static CompletableFuture<Void> evaluate(SolverPlan.Step<?> step, SlotContext context, ValueLookup lookup, SolveOptions options,
+		SolveLimits limits) {
+		if (limits.reached()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return StepEvaluator.evaluateAsync(step, context, lookup, options, limits)
+			.thenRun(() -> limits.check(context, step.slot));
+	}
+
+	private static CompletableFuture<Void> allOf(CompletableFuture<?>[] done, int[] slots) {
+		if (slots.length == 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<?>[] sources = new CompletableFuture<?>[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			sources[i] = done[slots[i]];
+		}
+		return CompletableFuture.allOf(sources);
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.BitSet;
+
+// off-heap column of a primitive value of a batch solve, one fixed width entry for each row
+public final class BatchColumn {
+	private final byte kind;
+	private final int width;
+	private final byte[] state;
+	private final ByteBuffer data;
+	private final BitSet nulls = new BitSet();
+
+	BatchColumn(byte kind, byte[] state) {
+		Preconditions.checkArgument(kind != Primitives.OBJECT, "not a primitive kind");
+		this.kind = kind;
+		this.width = kind == Primitives.INT ? Integer.BYTES : Long.BYTES;
+		this.state = state;
+		Preconditions.checkArgument((long) state.length * width <= Integer.MAX_VALUE, "too many rows for one column: %s", state.length);
+		this.data = ByteBuffer.allocateDirect(state.length * width).order(ByteOrder.nativeOrder());
+	}
+
+	public int size() {
+		return state.length;
+	}
+
+	// valid and not null
+	public boolean isSet(int row) {
+		return state[row] == SlotContext.VALID && !nulls.get(row);
+	}
+
+	public boolean isNull(int row) {
+		return nulls.get(row);
+	}
+
+	public boolean isInvalid(int row) {
+		return state[row] == SlotContext.INVALID;
+	}
+
+	public double getDouble(int row) {
+		checkKind(Primitives.DOUBLE);
+		return data.getDouble(row * width);
+	}
+
+	public long getLong(int row) {
+		checkKind(Primitives.LONG);
+		return data.getLong(row * width);
+	}
+
+	public int getInt(int row) {
+		checkKind(Primitives.INT);
+		return data.getInt(row * width);
+	}
+
+	// raw column, entries of rows which are not set are undefined
+	public DoubleBuffer asDoubleBuffer() {
+		checkKind(Primitives.DOUBLE);
+		return readOnly().asDoubleBuffer();
+	}
+
+	public LongBuffer asLongBuffer() {
+		checkKind(Primitives.LONG);
+		return readOnly().asLongBuffer();
+	}
+
+	public IntBuffer asIntBuffer() {
+		checkKind(Primitives.INT);
+		return readOnly().asIntBuffer();
+	}
+
+	public BitSet nullRows() {
+		return (BitSet) nulls.clone();
+	}
+
+	public BitSet invalidRows() {
+		BitSet ret = new BitSet(state.length);
+		for (int row = 0; row < state.length; row++) {
+			if (state[row] == SlotContext.INVALID) {
+				ret.set(row);
+			}
+		}
+		return ret;
+	}
+
+	private ByteBuffer readOnly() {
+		return data.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+	}
+
+	private void checkKind(byte expected) {
+		Preconditions.checkState(kind == expected, "column kind is %s, not %s", kind, expected);
+	}
+
+	@Nullable Object value(int row) {
+		return nulls.get(row) ? null : Primitives.box(kind, bits(row));
+	}
+
+	long bits(int row) {
+		return width == Integer.BYTES ? data.getInt(row * width) : data.getLong(row * width);
+	}
+
+	void set(int row, @Nullable Object value) {
+		if (value == null) {
+			nulls.set(row);
+		} else {
+			setBits(row, Primitives.unbox(kind, value));
+		}
+	}
+
+	void setBits(int row, long bits) {
+		if (width == Integer.BYTES) {
+			data.putInt(row * width, (int) bits);
+		} else {
+			data.putLong(row * width, bits);
+		}
+	}
+
+	byte kind() {
+		return kind;
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.BatchValueLookup;
+import de.flapdoodle.formula.calculate.ValueLookup;
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+
+// solve time state of many rows, one column for each value of a SolverPlan
+final class BatchContext {
+	private final SolverPlan plan;
+	private final int size;
+	private final byte[][] state;
+	// only for object slots
+	private final Object[][] values;
+	// only for primitive slots
+	private final BatchColumn[] columns;
+	// allocated for a slot with its first error
+	private final ValidationError[][] errors;
+
+	BatchContext(SolverPlan plan, int size) {
+		this.plan = plan;
+		this.size = size;
+		this.state = new byte[plan.size()][size];
+		this.values = new Object[plan.size()][];
+		this.columns = new BatchColumn[plan.size()];
+		this.errors = new ValidationError[plan.size()][];
+		for (int slot = 0; slot < plan.size(); slot++) {
+			byte kind = plan.kind(slot);
+			if (kind == Primitives.OBJECT) {
+				values[slot] = new Object[size];
+			} else {
+				columns[slot] = new BatchColumn(kind, state[slot]);
+			}
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	BatchResult freeze() {
+		return new BatchResult(plan, size, state, values, columns, errors);
+	}
+
+	// cursor, moved row by row, to evaluate one step over all rows without allocations
+	final class Row implements SlotAccess, ValueLookup {
+		private final BatchValueLookup lookup;
+		private int row;
+
+		Row(BatchValueLookup lookup) {
+			this.lookup = lookup;
+		}
+
+		Row at(int row) {
+			this.row = row;
+			return this;
+		}
+
+		@Override
+		public <T> @Nullable T get(Value<T> id) {
+			return lookup.get(id, row);
+		}
+
+		@Override
+		public byte state(int slot) {
+			return state[slot][row];
+		}
+
+		@Override
+		public @Nullable Object value(int slot) {
+			BatchColumn column = columns[slot];
+			return column != null ? column.value(row) : values[slot][row];
+		}
+
+		@Override
+		public boolean hasValue(int slot) {
+			BatchColumn column = columns[slot];
+			return column != null ? !column.isNull(row) : values[slot][row] != null;
+		}
+
+		@Override
+		public double doubleValue(int slot) {
+			BatchColumn column = columns[slot];
+			return column != null && column.kind() == Primitives.DOUBLE ? column.getDouble(row) : SlotAccess.super.doubleValue(slot);
+		}
+
+		@Override
+		public long longValue(int slot) {
+			BatchColumn column = columns[slot];
+			return column != null && column.kind() == Primitives.LONG ? column.getLong(row) : SlotAccess.super.longValue(slot);
+		}
+
+		@Override
+		public int intValue(int slot) {
+			BatchColumn column = columns[slot];
+			return column != null && column.kind() == Primitives.INT ? column.getInt(row) : SlotAccess.super.intValue(slot);
+		}
+
+		@Override
+		public void setValidDouble(int slot, double value) {
+			setPrimitive(slot, Primitives.DOUBLE, Primitives.bits(value));
+		}
+
+		@Override
+		public void setValidLong(int slot, long value) {
+			setPrimitive(slot, Primitives.LONG, value);
+		}
+
+		@Override
+		public void setValidInt(int slot, int value) {
+			setPrimitive(slot, Primitives.INT, value);
+		}
+
+		@Override
+		public ValidationError error(int slot) {
+			Preconditions.checkArgument(state[slot][row] == SlotContext.INVALID, "no validation error for %s", plan.value(slot));
+			return errors[slot][row];
+		}
+
+		@Override
+		public void setValid(int slot, @Nullable Object value) {
+			set(slot, SlotContext.VALID, value, null);
+		}
+
+		@Override
+		public void setUnvalidated(int slot, @Nullable Object value) {
+			set(slot, SlotContext.UNVALIDATED, value, null);
+		}
+
+		@Override
+		public void setInvalid(int slot, ValidationError error) {
+			set(slot, SlotContext.INVALID, null, error);
+		}
+
+		@Override
+		public void setTimedOut(int slot) {
+			set(slot, SlotContext.TIMED_OUT, null, null);
+		}
+
+		private void set(int slot, byte newState, @Nullable Object value, @Nullable ValidationError error) {
+			Preconditions.checkArgument(state[slot][row] == SlotContext.UNSET, "%s already set", plan.value(slot));
+			state[slot][row] = newState;
+			BatchColumn column = columns[slot];
+			if (column != null) {
+				if (newState == SlotContext.VALID || newState == SlotContext.UNVALIDATED) {
+					column.set(row, value);
+				}
+			} else {
+				values[slot][row] = value;
+			}
+			if (error != null) {
+				if (errors[slot] == null) {
+					errors[slot] = new ValidationError[size];
+				}
+				errors[slot][row] = error;
+			}
+		}
+
+		private void setPrimitive(int slot, byte kind, long bits) {
+			BatchColumn column = columns[slot];
+			if (column == null || column.kind() != kind) {
+				set(slot, SlotContext.VALID, Primitives.box(kind, bits), null);
+				return;
+			}
+			Preconditions.checkArgument(state[slot][row] == SlotContext.UNSET, "%s already set", plan.value(slot));
+			state[slot][row] = SlotContext.VALID;
+			column.setBits(row, bits);
+		}
+	}
+}
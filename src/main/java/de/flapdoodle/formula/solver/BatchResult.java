@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+// columnar result of a batch solve, one column for each value, primitive values are stored off-heap
+public final class BatchResult {
+	private final SolverPlan plan;
+	private final int size;
+	private final byte[][] state;
+	private final Object[][] values;
+	private final BatchColumn[] columns;
+	// null for slots without errors
+	private final ValidationError[][] errors;
+
+	// arrays are owned by this instance
+	BatchResult(SolverPlan plan, int size, byte[][] state, Object[][] values, BatchColumn[] columns, ValidationError[][] errors) {
+		this.plan = plan;
+		this.size = size;
+		this.state = state;
+		this.values = values;
+		this.columns = columns;
+		this.errors = errors;
+	}
+
+	public SolverPlan plan() {
+		return plan;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> @Nullable T get(Value<T> id, int row) {
+		int slot = plan.slotOf(id);
+		if (slot != -1) {
+			if (state[slot][row] == SlotContext.INVALID) {
+				return null;
+			}
+			if (state[slot][row] == SlotContext.VALID) {
+				return (T) (columns[slot] != null ? columns[slot].value(row) : values[slot][row]);
+			}
+		}
+		throw new NullPointerException("value " + id + " not set in row " + row);
+	}
+
+	// raw column of a primitive value
+	public BatchColumn column(Value<?> id) {
+		int slot = plan.slotOf(id);
+		Preconditions.checkArgument(slot != -1, "unknown value: %s", id);
+		Preconditions.checkArgument(columns[slot] != null, "not a primitive value: %s", id);
+		return columns[slot];
+	}
+
+	public boolean hasValidationErrors(int row) {
+		for (int slot = 0; slot < state.length; slot++) {
+			if (state[slot][row] == SlotContext.INVALID) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Map<Value<?>, ValidationError> validationErrors(int row) {
+		ImmutableMap.Builder<Value<?>, ValidationError> builder = ImmutableMap.builder();
+		for (int slot = 0; slot < state.length; slot++) {
+			if (state[slot][row] == SlotContext.INVALID) {
+				builder.put(plan.value(slot), errors[slot][row]);
+			}
+		}
+		return builder.build();
+	}
+
+	public Set<Value<?>> validatedValues(int row) {
+		ImmutableSet.Builder<Value<?>> builder = ImmutableSet.builder();
+		for (int slot = 0; slot < state.length; slot++) {
+			if (state[slot][row] == SlotContext.VALID) {
+				builder.add(plan.value(slot));
+			}
+		}
+		return builder.build();
+	}
+
+	public Result row(int row) {
+		Preconditions.checkElementIndex(row, size, "row");
+		return new Result() {
+			@Override
+			public Set<Value<?>> validatedValues() {
+				return BatchResult.this.validatedValues(row);
+			}
+
+			@Override
+			public Map<Value<?>, ValidationError> validationErrors() {
+				return BatchResult.this.validationErrors(row);
+			}
+
+			@Override
+			public <T> @Nullable T get(Value<T> id) {
+				return BatchResult.this.get(id, row);
+			}
+
+			@Override
+			public double getDouble(Value<Double> id) {
+				BatchColumn column = primitiveColumn(id, Primitives.DOUBLE, row);
+				return column != null ? column.getDouble(row) : Result.super.getDouble(id);
+			}
+
+			@Override
+			public long getLong(Value<Long> id) {
+				BatchColumn column = primitiveColumn(id, Primitives.LONG, row);
+				return column != null ? column.getLong(row) : Result.super.getLong(id);
+			}
+
+			@Override
+			public int getInt(Value<Integer> id) {
+				BatchColumn column = primitiveColumn(id, Primitives.INT, row);
+				return column != null ? column.getInt(row) : Result.super.getInt(id);
+			}
+		};
+	}
+
+	// null if the value is not set in this row or not stored as primitive of this kind
+	private @Nullable BatchColumn primitiveColumn(Value<?> id, byte kind, int row) {
+		int slot = plan.slotOf(id);
+		if (slot == -1) {
+			return null;
+		}
+		BatchColumn column = columns[slot];
+		return column != null && column.kind() == kind && column.isSet(row) ? column : null;
+	}
+}
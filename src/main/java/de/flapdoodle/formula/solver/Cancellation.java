@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import java.util.function.Supplier;
+
+// long running calculations should call checkpoint() from time to time
+public abstract class Cancellation {
+	private static final ThreadLocal<Running> CURRENT = new ThreadLocal<>();
+
+	private Cancellation() {
+		// no instance
+	}
+
+	// throws a SolveTimeoutException if the solve deadline or the calculation timeout is reached or the solve was cancelled
+	public static void checkpoint() {
+		Running running = CURRENT.get();
+		if (running != null) {
+			running.limits.checkpoint(running.started);
+		}
+	}
+
+	static <T> T run(SolveLimits limits, Supplier<T> calculation) {
+		Running previous = CURRENT.get();
+		CURRENT.set(new Running(limits, System.nanoTime()));
+		try {
+			return calculation.get();
+		}
+		finally {
+			if (previous != null) {
+				CURRENT.set(previous);
+			} else {
+				CURRENT.remove();
+			}
+		}
+	}
+
+	private static final class Running {
+		private final SolveLimits limits;
+		private final long started;
+
+		private Running(SolveLimits limits, long started) {
+			this.limits = limits;
+			this.started = started;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Throwables;
+import de.flapdoodle.formula.calculate.ValueLookup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+// each independent part of the graph is solved as one task, parts do not share any slot
+final class ComponentSolver {
+	private ComponentSolver() {
+		// no instance
+	}
+
+	static SlotContext solve(SlotContext context, ValueLookup lookup, Executor executor, SolveOptions options) {
+		SolveLimits limits = new SolveLimits(options);
+		int[][] components = context.plan().components();
+		CompletableFuture<?>[] done = new CompletableFuture<?>[components.length];
+		for (int i = 0; i < components.length; i++) {
+			int[] slots = components[i];
+			done[i] = CompletableFuture.runAsync(() -> solve(slots, context, lookup, options, limits), executor);
+		}
+
+		try {
+			CompletableFuture.allOf(done).join();
+		}
+		catch (CompletionException ex) {
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new RuntimeException(ex.getCause());
+		}
+
+		if (limits.reached()) {
+			context.stop(limits);
+		}
+		return context;
+	}
+
+	private static void solve(int[] slots, SlotContext context, ValueLookup lookup, SolveOptions options, SolveLimits limits) {
+		SolverPlan plan = context.plan();
+		for (int slot : slots) {
+			if (limits.reached()) {
+				return;
+			}
+			StepEvaluator.evaluate(plan.step(slot), context, lookup, options, limits);
+			if (limits.check(context, slot)) {
+				return;
+			}
+		}
+	}
+}
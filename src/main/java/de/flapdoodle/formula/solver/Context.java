@@ -17,7 +17,6 @@
 package de.flapdoodle.formula.solver;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Sets;
 import de.flapdoodle.formula.Unvalidated;
 import de.flapdoodle.formula.Value;
 import de.flapdoodle.formula.ValueContainer;
@@ -29,6 +28,7 @@ import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 @org.immutables.value.Value.Immutable
 public abstract class Context {
@@ -43,19 +43,27 @@ public abstract class Context {
 
 	protected abstract Map<Value<?>, ValidationError> validationErrorMap();
 
+	// runs on every construction path, so only the keys of the smaller side are looked up in the other,
+	// adding a validated value costs the number of unvalidated and invalid values, not of all values
 	@org.immutables.value.Value.Check
 	protected void check() {
-		Set<Value<?>> unvalidated = unvalidated().keys();
-		Set<Value<?>> validated = validatedValues().keys();
+		ValueContainer unvalidated = unvalidated();
+		ValueContainer validated = validatedValues();
 		Set<Value<?>> invalid = validationErrorMap().keySet();
 
-		Sets.SetView<Value<?>> validatedAndUnvalidated = Sets.intersection(unvalidated, validated);
-		Sets.SetView<Value<?>> validatedAndInvalid = Sets.intersection(validated, invalid);
-		Sets.SetView<Value<?>> unvalidAndInvalid = Sets.intersection(unvalidated, invalid);
+		if (unvalidated.size() <= validated.size()) {
+			checkDisjoint(unvalidated.keys(), validated::contains, "validated AND unvalidated: %s");
+		} else {
+			checkDisjoint(validated.keys(), unvalidated::contains, "validated AND unvalidated: %s");
+		}
+		checkDisjoint(invalid, validated::contains, "validated AND invalid: %s");
+		checkDisjoint(invalid, unvalidated::contains, "unvalidated AND invalid: %s");
+	}
 
-		Preconditions.checkArgument(validatedAndUnvalidated.isEmpty(),"validated AND unvalidated: %s", validatedAndUnvalidated);
-		Preconditions.checkArgument(validatedAndInvalid.isEmpty(),"validated AND invalid: %s", validatedAndInvalid);
-		Preconditions.checkArgument(unvalidAndInvalid.isEmpty(),"unvalidated AND invalid: %s", unvalidAndInvalid);
+	private static void checkDisjoint(Set<Value<?>> keys, Predicate<Value<?>> other, String message) {
+		for (Value<?> key : keys) {
+			Preconditions.checkArgument(!other.test(key), message, key);
+		}
 	}
 
 	public <T> Context add(Value<T> id, T value) {
@@ -97,7 +105,7 @@ public abstract class Context {
 	}
 
 	public boolean isValid(Value<?> id) {
-		return validatedValues().keys().contains(id);
+		return validatedValues().contains(id);
 	}
 	public boolean isInvalid(Value<?> id) {
 		return validationErrorMap().containsKey(id);
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// costs in microseconds, declared by calculations and validations or measured while solving
+public final class CostModel {
+	// weight of each new measurement
+	private static final double SMOOTHING = 0.2;
+
+	private final boolean learning;
+	private final ConcurrentMap<Value<?>, Double> measured = new ConcurrentHashMap<>();
+
+	private CostModel(boolean learning) {
+		this.learning = learning;
+	}
+
+	public boolean isLearning() {
+		return learning;
+	}
+
+	public OptionalDouble measured(Value<?> value) {
+		Double cost = measured.get(value);
+		return cost != null ? OptionalDouble.of(cost) : OptionalDouble.empty();
+	}
+
+	void record(Value<?> value, long nanos) {
+		double micros = nanos / 1000.0;
+		measured.merge(value, micros, (old, current) -> old + SMOOTHING * (current - old));
+	}
+
+	double cost(SolverPlan.Step<?> step) {
+		Double cost = measured.get(step.destination);
+		if (cost != null) {
+			return cost;
+		}
+		return (step.calculation != null ? step.calculation.declaredCost() : 0.0)
+			+ (step.validation != null ? step.validation.declaredCost() : 0.0);
+	}
+
+	// cost of the most expensive path from each slot to the end of the graph
+	double[] criticalPath(SolverPlan plan) {
+		double[] ret = new double[plan.size()];
+		for (int slot = ret.length - 1; slot >= 0; slot--) {
+			double longestSuccessor = 0.0;
+			for (int i = plan.successorOffset(slot); i < plan.successorOffset(slot + 1); i++) {
+				longestSuccessor = Math.max(longestSuccessor, ret[plan.successorAt(i)]);
+			}
+			ret[slot] = cost(plan.step(slot)) + longestSuccessor;
+		}
+		return ret;
+	}
+
+	public static CostModel declared() {
+		return new CostModel(false);
+	}
+
+	// measured durations replace declared costs
+	public static CostModel learning() {
+		return new CostModel(true);
+	}
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.Calculation;
+import de.flapdoodle.formula.rules.CalculationMap;
+import de.flapdoodle.formula.rules.ValidationMap;
+import de.flapdoodle.formula.validation.Validation;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// each value interned to a dense id, adjacency as compressed sparse rows
+final class DenseGraph {
+	private static final int[] NO_SOURCES = new int[0];
+
+	private final Value<?>[] values;
+	private final Map<Value<?>, Integer> ids;
+	private final Calculation<?>[] calculations;
+	private final Validation<?>[] validations;
+	// source ids in order of Calculation.sources() and Validation.sources()
+	private final int[][] calculationSources;
+	private final int[][] validationSources;
+	// edges of id are predecessors[predecessorOffsets[id] .. predecessorOffsets[id + 1]]
+	private final int[] predecessorOffsets;
+	private final int[] predecessors;
+	private final int[] successorOffsets;
+	private final int[] successors;
+
+	private DenseGraph(Value<?>[] values, Map<Value<?>, Integer> ids, Calculation<?>[] calculations, Validation<?>[] validations,
+		int[][] calculationSources, int[][] validationSources, boolean parallel) {
+		this.values = values;
+		this.ids = ids;
+		this.calculations = calculations;
+		this.validations = validations;
+		this.calculationSources = calculationSources;
+		this.validationSources = validationSources;
+
+		this.predecessorOffsets = new int[values.length + 1];
+		int[][] distinctSources = new int[values.length][];
+		ids(values.length, parallel).forEach(id -> distinctSources[id] = distinct(calculationSources[id], validationSources[id]));
+		for (int id = 0; id < values.length; id++) {
+			predecessorOffsets[id + 1] = predecessorOffsets[id] + distinctSources[id].length;
+		}
+		// each id writes its own range
+		this.predecessors = new int[predecessorOffsets[values.length]];
+		ids(values.length, parallel).forEach(id -> System.arraycopy(distinctSources[id], 0, predecessors, predecessorOffsets[id], distinctSources[id].length));
+
+		int[] successorCount = new int[values.length];
+		for (int source : predecessors) {
+			successorCount[source]++;
+		}
+
+		this.successorOffsets = new int[values.length + 1];
+		for (int id = 0; id < values.length; id++) {
+			successorOffsets[id + 1] = successorOffsets[id] + successorCount[id];
+		}
+		this.successors = new int[predecessors.length];
+		int[] next = Arrays.copyOf(successorOffsets, values.length);
+		for (int id = 0; id < values.length; id++) {
+			for (int i = predecessorOffsets[id]; i < predecessorOffsets[id + 1]; i++) {
+				successors[next[predecessors[i]]++] = id;
+			}
+		}
+	}
+
+	int size() {
+		return values.length;
+	}
+
+	// -1 if this value is not part of the graph
+	int id(Value<?> value) {
+		Integer id = ids.get(value);
+		return id != null ? id : -1;
+	}
+
+	Value<?> value(int id) {
+		return values[id];
+	}
+
+	@Nullable Calculation<?> calculation(int id) {
+		return calculations[id];
+	}
+
+	@Nullable Validation<?> validation(int id) {
+		return validations[id];
+	}
+
+	int[] calculationSources(int id) {
+		return calculationSources[id];
+	}
+
+	int[] validationSources(int id) {
+		return validationSources[id];
+	}
+
+	int predecessorOffset(int id) {
+		return predecessorOffsets[id];
+	}
+
+	int predecessorAt(int index) {
+		return predecessors[index];
+	}
+
+	int successorOffset(int id) {
+		return successorOffsets[id];
+	}
+
+	int successorAt(int index) {
+		return successors[index];
+	}
+
+	private static IntStream ids(int size, boolean parallel) {
+		IntStream ret = IntStream.range(0, size);
+		return parallel ? ret.parallel() : ret;
+	}
+
+	private static int[] distinct(int[] calculationSources, int[] validationSources) {
+		return IntStream.concat(Arrays.stream(calculationSources), Arrays.stream(validationSources))
+			.distinct()
+			.toArray();
+	}
+
+	// destinations first, then all other sources, parallel streams run in the pool of the calling task
+	static DenseGraph inParallel(CalculationMap calculationMap, ValidationMap validationMap) {
+		List<Value<?>> destinations = ImmutableSet.<Value<?>>builder()
+			.addAll(calculationMap.keys())
+			.addAll(validationMap.keys())
+			.build()
+			.asList();
+		Set<Value<?>> destinationSet = ImmutableSet.copyOf(destinations);
+
+		ImmutableSet<Value<?>> otherSources = destinations.parallelStream()
+			.flatMap(destination -> Stream.concat(
+				sourcesOf(calculationMap.get(destination)),
+				sourcesOf(validationMap.get(destination))))
+			.filter(it -> !destinationSet.contains(it))
+			.collect(ImmutableSet.toImmutableSet());
+
+		Value<?>[] values = Stream.concat(destinations.stream(), otherSources.stream()).toArray(Value<?>[]::new);
+		Map<Value<?>, Integer> ids = new ConcurrentHashMap<>(values.length);
+		ids(values.length, true).forEach(id -> ids.put(values[id], id));
+
+		Calculation<?>[] calculations = new Calculation<?>[values.length];
+		Validation<?>[] validations = new Validation<?>[values.length];
+		int[][] calculationSources = new int[values.length][];
+		int[][] validationSources = new int[values.length][];
+		Arrays.fill(calculationSources, NO_SOURCES);
+		Arrays.fill(validationSources, NO_SOURCES);
+		ids(destinations.size(), true).forEach(id -> {
+			calculations[id] = calculationMap.get(values[id]);
+			validations[id] = validationMap.get(values[id]);
+			if (calculations[id] != null) {
+				calculationSources[id] = idsOf(ids, calculations[id].sources());
+			}
+			if (validations[id] != null) {
+				validationSources[id] = idsOf(ids, validations[id].sources());
+			}
+		});
+
+		return new DenseGraph(values, ids, calculations, validations, calculationSources, validationSources, true);
+	}
+
+	private static Stream<? extends ValueSource<?>> sourcesOf(@Nullable Calculation<?> calculation) {
+		return calculation != null ? calculation.sources().stream() : Stream.empty();
+	}
+
+	private static Stream<? extends ValueSource<?>> sourcesOf(@Nullable Validation<?> validation) {
+		return validation != null ? validation.sources().stream() : Stream.empty();
+	}
+
+	private static int[] idsOf(Map<Value<?>, Integer> ids, Collection<? extends ValueSource<?>> sources) {
+		return sources.stream().mapToInt(ids::get).toArray();
+	}
+
+	static Builder builder() {
+		return new Builder();
+	}
+
+	static final class Builder {
+		private final Map<Value<?>, Integer> ids = new HashMap<>();
+		private final List<Value<?>> values = new ArrayList<>();
+		private final List<Calculation<?>> calculations = new ArrayList<>();
+		private final List<Validation<?>> validations = new ArrayList<>();
+		private final List<int[]> calculationSources = new ArrayList<>();
+		private final List<int[]> validationSources = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		int intern(Value<?> value) {
+			Integer id = ids.get(value);
+			if (id == null) {
+				id = values.size();
+				ids.put(value, id);
+				values.add(value);
+				calculations.add(null);
+				validations.add(null);
+				calculationSources.add(NO_SOURCES);
+				validationSources.add(NO_SOURCES);
+			}
+			return id;
+		}
+
+		Builder add(Value<?> destination, @Nullable Calculation<?> calculation, @Nullable Validation<?> validation) {
+			int id = intern(destination);
+			Preconditions.checkArgument(calculations.get(id) == null && validations.get(id) == null, "%s already added", destination);
+			calculations.set(id, calculation);
+			validations.set(id, validation);
+			if (calculation != null) {
+				calculationSources.set(id, internAll(calculation.sources()));
+			}
+			if (validation != null) {
+				validationSources.set(id, internAll(validation.sources()));
+			}
+			return this;
+		}
+
+		private int[] internAll(Collection<? extends ValueSource<?>> sources) {
+			int[] ret = new int[sources.size()];
+			int index = 0;
+			for (ValueSource<?> source : sources) {
+				ret[index++] = intern(source);
+			}
+			return ret;
+		}
+
+		DenseGraph build() {
+			return new DenseGraph(
+				values.toArray(new Value<?>[0]),
+				ImmutableMap.copyOf(ids),
+				calculations.toArray(new Calculation<?>[0]),
+				validations.toArray(new Validation<?>[0]),
+				calculationSources.toArray(new int[0][]),
+				validationSources.toArray(new int[0][]),
+				false
+			);
+		}
+	}
+}
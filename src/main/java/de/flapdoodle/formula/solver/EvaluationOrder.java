@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Strings;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import de.flapdoodle.graph.GraphBuilder;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// strongly connected components (Tarjan) along predecessor edges, so each component is complete after all its sources
+abstract class EvaluationOrder {
+	// keep the exception message small on large graphs
+	static final int MAX_REPORTED_LOOPS = 10;
+	static final int MAX_NEIGHBOURS = 32;
+
+	private EvaluationOrder() {
+		// no instance
+	}
+
+	static int[] of(DenseGraph graph) {
+		int size = graph.size();
+		int[] order = new int[size];
+		int orderSize = 0;
+		List<int[]> loops = new ArrayList<>();
+
+		int[] index = new int[size];
+		int[] lowLink = new int[size];
+		Arrays.fill(index, -1);
+		boolean[] onStack = new boolean[size];
+		int[] stack = new int[size];
+		int stackSize = 0;
+		// explicit call stack: vertex and next predecessor edge
+		int[] callVertex = new int[size];
+		int[] callEdge = new int[size];
+		int nextIndex = 0;
+
+		for (int root = 0; root < size; root++) {
+			if (index[root] != -1) {
+				continue;
+			}
+			int depth = 0;
+			callVertex[0] = root;
+			callEdge[0] = graph.predecessorOffset(root);
+			index[root] = lowLink[root] = nextIndex++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+
+			while (depth >= 0) {
+				int current = callVertex[depth];
+				if (callEdge[depth] < graph.predecessorOffset(current + 1)) {
+					int predecessor = graph.predecessorAt(callEdge[depth]++);
+					if (index[predecessor] == -1) {
+						index[predecessor] = lowLink[predecessor] = nextIndex++;
+						stack[stackSize++] = predecessor;
+						onStack[predecessor] = true;
+						depth++;
+						callVertex[depth] = predecessor;
+						callEdge[depth] = graph.predecessorOffset(predecessor);
+					} else if (onStack[predecessor]) {
+						lowLink[current] = Math.min(lowLink[current], index[predecessor]);
+					}
+				} else {
+					if (lowLink[current] == index[current]) {
+						int start = stackSize;
+						do {
+							onStack[stack[--start]] = false;
+						} while (stack[start] != current);
+
+						if (stackSize - start == 1 && !hasSelfLoop(graph, current)) {
+							order[orderSize++] = current;
+						} else {
+							loops.add(Arrays.copyOfRange(stack, start, stackSize));
+						}
+						stackSize = start;
+					}
+					depth--;
+					if (depth >= 0) {
+						int parent = callVertex[depth];
+						lowLink[parent] = Math.min(lowLink[parent], lowLink[current]);
+					}
+				}
+			}
+		}
+
+		if (!loops.isEmpty()) {
+			throw new IllegalArgumentException(loopsDetected(graph, loops));
+		}
+		return order;
+	}
+
+	private static boolean hasSelfLoop(DenseGraph graph, int id) {
+		for (int i = graph.predecessorOffset(id); i < graph.predecessorOffset(id + 1); i++) {
+			if (graph.predecessorAt(i) == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String loopsDetected(DenseGraph graph, List<int[]> components) {
+		List<List<Value<?>>> loops = new ArrayList<>();
+		Set<Integer> shown = new LinkedHashSet<>();
+		for (int[] component : components.subList(0, Math.min(components.size(), MAX_REPORTED_LOOPS))) {
+			int[] loop = loopIn(graph, component);
+			loops.add(Arrays.stream(loop).mapToObj(graph::value).collect(Collectors.toList()));
+			Arrays.stream(loop).forEach(shown::add);
+		}
+
+		// direct sources and destinations of each loop, up to a limit
+		Set<Integer> neighbours = new LinkedHashSet<>();
+		for (int id : shown) {
+			for (int i = graph.predecessorOffset(id); i < graph.predecessorOffset(id + 1) && neighbours.size() < MAX_NEIGHBOURS; i++) {
+				neighbours.add(graph.predecessorAt(i));
+			}
+			for (int i = graph.successorOffset(id); i < graph.successorOffset(id + 1) && neighbours.size() < MAX_NEIGHBOURS; i++) {
+				neighbours.add(graph.successorAt(i));
+			}
+		}
+		shown.addAll(neighbours);
+
+		String loopsAsString = loops.stream()
+			.map(loop -> loop.stream().map(HasHumanReadableLabel::asHumanReadable).collect(Collectors.joining(" -> ")))
+			.collect(Collectors.joining(", ", "[", "]"));
+		String more = components.size() > MAX_REPORTED_LOOPS
+			? " (" + (components.size() - MAX_REPORTED_LOOPS) + " more)"
+			: "";
+
+		return Strings.lenientFormat("loops detected: %s%s\n-8<-------\n%s\n->8-------\n", loopsAsString, more, renderAsDot(graph, shown));
+	}
+
+	// shortest path from the first vertex back to itself, staying inside the component
+	private static int[] loopIn(DenseGraph graph, int[] component) {
+		Set<Integer> members = Arrays.stream(component).boxed().collect(Collectors.toSet());
+		int start = component[0];
+		int[] parent = new int[graph.size()];
+		Arrays.fill(parent, -1);
+		int[] queue = new int[component.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = start;
+		int last = -1;
+		while (head < tail && last == -1) {
+			int current = queue[head++];
+			for (int i = graph.successorOffset(current); i < graph.successorOffset(current + 1); i++) {
+				int successor = graph.successorAt(i);
+				if (successor == start) {
+					last = current;
+					break;
+				}
+				if (members.contains(successor) && parent[successor] == -1) {
+					parent[successor] = current;
+					queue[tail++] = successor;
+				}
+			}
+		}
+
+		List<Integer> path = new ArrayList<>();
+		for (int current = last; current != start; current = parent[current]) {
+			path.add(0, current);
+		}
+		path.add(0, start);
+		path.add(start);
+		return path.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static String renderAsDot(DenseGraph graph, Set<Integer> ids) {
+		GraphBuilder<Value<?>, DefaultEdge, DefaultDirectedGraph<Value<?>, DefaultEdge>> builder = GraphBuilder.withDirectedGraph();
+		ids.forEach(id -> builder.addVertex(graph.value(id)));
+		for (int id : ids) {
+			for (int i = graph.predecessorOffset(id); i < graph.predecessorOffset(id + 1); i++) {
+				if (ids.contains(graph.predecessorAt(i))) {
+					builder.addEdge(graph.value(graph.predecessorAt(i)), graph.value(id));
+				}
+			}
+		}
+		return GraphRenderer.renderGraphAsDot(builder.build());
+	}
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import de.flapdoodle.formula.Unvalidated;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.Calculation;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import de.flapdoodle.formula.validation.Validation;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// rules can be added and removed, the topological order is kept up to date (Pearce-Kelly), not thread safe
+public final class IncrementalValueGraph {
+	private final Map<Value<?>, Integer> ids = new HashMap<>();
+	private final List<Value<?>> values = new ArrayList<>();
+	private final List<Calculation<?>> calculations = new ArrayList<>();
+	private final List<Validation<?>> validations = new ArrayList<>();
+	private final List<Set<Integer>> predecessors = new ArrayList<>();
+	private final List<Set<Integer>> successors = new ArrayList<>();
+
+	// position of each id in topological order and id at each position
+	private int[] ord = new int[16];
+	private int[] idAt = new int[16];
+	// search marks, a search owns all ids marked with its stamp
+	private int[] marks = new int[16];
+	private int[] parents = new int[16];
+	private int stamp = 0;
+
+	private long version = 0;
+	private ValueGraph snapshot;
+
+	private IncrementalValueGraph() {
+	}
+
+	public long version() {
+		return version;
+	}
+
+	public IncrementalValueGraph add(Rules rules) {
+		rules.calculations().all().forEach(this::add);
+		rules.validations().all().forEach(this::add);
+		return this;
+	}
+
+	public IncrementalValueGraph add(Calculation<?> calculation) {
+		calculation.sources().forEach(it -> Preconditions.checkArgument(!(it instanceof Unvalidated), "not allowed in calculation: %s", it));
+		int id = intern(calculation.destination());
+		Preconditions.checkArgument(calculations.get(id) == null, "calculation for %s already added", calculation.destination());
+		update(id, calculation, validations.get(id));
+		return this;
+	}
+
+	public IncrementalValueGraph add(Validation<?> validation) {
+		int id = intern(validation.destination());
+		Preconditions.checkArgument(validations.get(id) == null, "validation for %s already added", validation.destination());
+		update(id, calculations.get(id), validation);
+		return this;
+	}
+
+	public IncrementalValueGraph removeCalculation(Value<?> destination) {
+		Integer id = ids.get(destination);
+		Preconditions.checkArgument(id != null && calculations.get(id) != null, "no calculation for %s", destination);
+		update(id, null, validations.get(id));
+		return this;
+	}
+
+	public IncrementalValueGraph removeValidation(Value<?> destination) {
+		Integer id = ids.get(destination);
+		Preconditions.checkArgument(id != null && validations.get(id) != null, "no validation for %s", destination);
+		update(id, calculations.get(id), null);
+		return this;
+	}
+
+	public Rules rules() {
+		List<Calculation<?>> calculationList = new ArrayList<>();
+		List<Validation<?>> validationList = new ArrayList<>();
+		for (int position = 0; position < values.size(); position++) {
+			int id = idAt[position];
+			if (calculations.get(id) != null) {
+				calculationList.add(calculations.get(id));
+			}
+			if (validations.get(id) != null) {
+				validationList.add(validations.get(id));
+			}
+		}
+		return Rules.empty()
+			.addCalculations(calculationList)
+			.addValidations(validationList);
+	}
+
+	// snapshot of the current version, built from the maintained order without another loop check
+	public ValueGraph valueGraph() {
+		ValueGraph current = snapshot;
+		if (current == null) {
+			DenseGraph.Builder builder = DenseGraph.builder();
+			for (int position = 0; position < values.size(); position++) {
+				int id = idAt[position];
+				if (isPartOfGraph(id)) {
+					// sources are already interned, so dense ids follow the topological order
+					if (calculations.get(id) != null || validations.get(id) != null) {
+						builder.add(values.get(id), calculations.get(id), validations.get(id));
+					} else {
+						builder.intern(values.get(id));
+					}
+				}
+			}
+			DenseGraph denseGraph = builder.build();
+			int[] evaluationOrder = new int[denseGraph.size()];
+			Arrays.setAll(evaluationOrder, it -> it);
+
+			Rules rules = rules();
+			current = new ValueGraph(denseGraph, rules.calculations(), rules.validations(), evaluationOrder);
+			snapshot = current;
+		}
+		return current;
+	}
+
+	public SolverPlan plan() {
+		return valueGraph().plan();
+	}
+
+	// values without rules are only part of the graph while something depends on them
+	private boolean isPartOfGraph(int id) {
+		return calculations.get(id) != null || validations.get(id) != null || !successors.get(id).isEmpty();
+	}
+
+	private int intern(Value<?> value) {
+		Integer id = ids.get(value);
+		if (id == null) {
+			id = values.size();
+			ids.put(value, id);
+			values.add(value);
+			calculations.add(null);
+			validations.add(null);
+			predecessors.add(new LinkedHashSet<>());
+			successors.add(new LinkedHashSet<>());
+			if (id == ord.length) {
+				ord = Arrays.copyOf(ord, id * 2);
+				idAt = Arrays.copyOf(idAt, id * 2);
+				marks = Arrays.copyOf(marks, id * 2);
+				parents = Arrays.copyOf(parents, id * 2);
+			}
+			// no edges yet, so the end of the order is a valid position
+			ord[id] = id;
+			idAt[id] = id;
+		}
+		return id;
+	}
+
+	private void update(int id, @Nullable Calculation<?> calculation, @Nullable Validation<?> validation) {
+		Set<Integer> oldSources = new LinkedHashSet<>(predecessors.get(id));
+		Set<Integer> newSources = new LinkedHashSet<>();
+		if (calculation != null) {
+			calculation.sources().forEach(it -> newSources.add(intern(it)));
+		}
+		if (validation != null) {
+			validation.sources().forEach(it -> newSources.add(intern(it)));
+		}
+
+		for (int source : oldSources) {
+			if (!newSources.contains(source)) {
+				removeEdge(source, id);
+			}
+		}
+		List<Integer> added = new ArrayList<>();
+		for (int source : newSources) {
+			if (!oldSources.contains(source)) {
+				List<Value<?>> loop = addEdge(source, id);
+				if (loop != null) {
+					// the old graph had no loop, so restoring its edges always succeeds
+					added.forEach(it -> removeEdge(it, id));
+					oldSources.stream()
+						.filter(it -> !newSources.contains(it))
+						.forEach(it -> addEdge(it, id));
+					throw new IllegalArgumentException("loops detected: " + loop.stream()
+						.map(HasHumanReadableLabel::asHumanReadable)
+						.collect(Collectors.joining(" -> ", "[", "]")));
+				}
+				added.add(source);
+			}
+		}
+
+		calculations.set(id, calculation);
+		validations.set(id, validation);
+		version++;
+		snapshot = null;
+	}
+
+	private void removeEdge(int source, int destination) {
+		successors.get(source).remove(destination);
+		predecessors.get(destination).remove(source);
+	}
+
+	// null if added, the loop otherwise
+	private @Nullable List<Value<?>> addEdge(int source, int destination) {
+		if (source == destination) {
+			return Arrays.asList(values.get(source), values.get(destination));
+		}
+		int lowerBound = ord[destination];
+		int upperBound = ord[source];
+		if (lowerBound < upperBound) {
+			// only ids between both positions have to be moved
+			List<Integer> forward = new ArrayList<>();
+			if (!searchForward(destination, source, upperBound, forward)) {
+				return loop(source);
+			}
+			List<Integer> backward = new ArrayList<>();
+			searchBackward(source, lowerBound, backward);
+			reorder(backward, forward);
+		}
+		successors.get(source).add(destination);
+		predecessors.get(destination).add(source);
+		return null;
+	}
+
+	// false if source can be reached from start
+	private boolean searchForward(int start, int source, int upperBound, List<Integer> visited) {
+		stamp++;
+		Deque<Integer> stack = new ArrayDeque<>();
+		stack.push(start);
+		marks[start] = stamp;
+		parents[start] = -1;
+		while (!stack.isEmpty()) {
+			int current = stack.pop();
+			visited.add(current);
+			for (int successor : successors.get(current)) {
+				if (successor == source) {
+					parents[source] = current;
+					return false;
+				}
+				if (marks[successor] != stamp && ord[successor] < upperBound) {
+					marks[successor] = stamp;
+					parents[successor] = current;
+					stack.push(successor);
+				}
+			}
+		}
+		return true;
+	}
+
+	private void searchBackward(int start, int lowerBound, List<Integer> visited) {
+		stamp++;
+		Deque<Integer> stack = new ArrayDeque<>();
+		stack.push(start);
+		marks[start] = stamp;
+		while (!stack.isEmpty()) {
+			int current = stack.pop();
+			visited.add(current);
+			for (int predecessor : predecessors.get(current)) {
+				if (marks[predecessor] != stamp && ord[predecessor] > lowerBound) {
+					marks[predecessor] = stamp;
+					stack.push(predecessor);
+				}
+			}
+		}
+	}
+
+	// everything reaching the new edge goes before everything reachable from it, using the same positions
+	private void reorder(List<Integer> backward, List<Integer> forward) {
+		backward.sort((a, b) -> Integer.compare(ord[a], ord[b]));
+		forward.sort((a, b) -> Integer.compare(ord[a], ord[b]));
+		int[] positions = new int[backward.size() + forward.size()];
+		int index = 0;
+		for (int id : backward) {
+			positions[index++] = ord[id];
+		}
+		for (int id : forward) {
+			positions[index++] = ord[id];
+		}
+		Arrays.sort(positions);
+
+		index = 0;
+		for (int id : backward) {
+			ord[id] = positions[index];
+			idAt[positions[index++]] = id;
+		}
+		for (int id : forward) {
+			ord[id] = positions[index];
+			idAt[positions[index++]] = id;
+		}
+	}
+
+	// path found by searchForward, from source over the new edge back to source
+	private List<Value<?>> loop(int source) {
+		List<Value<?>> ret = new ArrayList<>();
+		for (int current = source; current != -1; current = parents[current]) {
+			ret.add(0, values.get(current));
+		}
+		ret.add(0, values.get(source));
+		return ret;
+	}
+
+	public static IncrementalValueGraph empty() {
+		return new IncrementalValueGraph();
+	}
+
+	public static IncrementalValueGraph of(Rules rules) {
+		return empty().add(rules);
+	}
+}
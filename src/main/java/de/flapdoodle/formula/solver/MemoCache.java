@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.Calculation;
+import de.flapdoodle.formula.calculate.ValueLookup;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.ToIntFunction;
+
+// results of pure calculations, keyed by calculation result key and source values, can be shared between solves
+// and between calculations of different destinations
+public final class MemoCache {
+	private final Cache<Key, Optional<Object>> cache;
+
+	private MemoCache(Cache<Key, Optional<Object>> cache) {
+		this.cache = cache;
+	}
+
+	public long hitCount() {
+		return cache.stats().hitCount();
+	}
+
+	public long missCount() {
+		return cache.stats().missCount();
+	}
+
+	public long evictionCount() {
+		return cache.stats().evictionCount();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> @Nullable T calculate(Calculation<T> calculation, ValueSource<?>[] sources, ValueLookup lookup) {
+		Object[] arguments = new Object[sources.length];
+		for (int i = 0; i < sources.length; i++) {
+			arguments[i] = lookup.get(sources[i]);
+		}
+
+		try {
+			return (T) cache.get(new Key(calculationKey(calculation), arguments),
+					() -> Optional.ofNullable(calculation.calculate(new ArgumentLookup(sources, arguments))))
+				.orElse(null);
+		}
+		catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private static Object calculationKey(Calculation<?> calculation) {
+		Object resultKey = calculation.resultKey();
+		return resultKey != null ? resultKey : new IdentityKey(calculation);
+	}
+
+	public static MemoCache maximumSize(long maximumSize) {
+		Preconditions.checkArgument(maximumSize > 0, "maximumSize must be > 0: %s", maximumSize);
+		return new MemoCache(CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.recordStats()
+			.build());
+	}
+
+	// weight of each cached result
+	public static MemoCache maximumWeight(long maximumWeight, ToIntFunction<Object> weigher) {
+		Preconditions.checkArgument(maximumWeight > 0, "maximumWeight must be > 0: %s", maximumWeight);
+		return new MemoCache(CacheBuilder.newBuilder()
+			.maximumWeight(maximumWeight)
+			.weigher((Key key, Optional<Object> value) -> value.map(weigher::applyAsInt).orElse(1))
+			.recordStats()
+			.build());
+	}
+
+	private static final class Key {
+		private final Object calculation;
+		private final Object[] arguments;
+		private final int hashCode;
+
+		private Key(Object calculation, Object[] arguments) {
+			this.calculation = calculation;
+			this.arguments = arguments;
+			this.hashCode = 31 * calculation.hashCode() + Arrays.hashCode(arguments);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key other = (Key) o;
+			return hashCode == other.hashCode
+				&& calculation.equals(other.calculation)
+				&& Arrays.equals(arguments, other.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	// calculations without result key are only equal to themselves
+	private static final class IdentityKey {
+		private final Calculation<?> calculation;
+
+		private IdentityKey(Calculation<?> calculation) {
+			this.calculation = calculation;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof IdentityKey && ((IdentityKey) o).calculation == calculation;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(calculation);
+		}
+	}
+
+	private static final class ArgumentLookup implements ValueLookup {
+		private final ValueSource<?>[] sources;
+		private final Object[] arguments;
+
+		private ArgumentLookup(ValueSource<?>[] sources, Object[] arguments) {
+			this.sources = sources;
+			this.arguments = arguments;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> @Nullable T get(Value<T> id) {
+			for (int i = 0; i < sources.length; i++) {
+				if (sources[i].equals(id)) {
+					return (T) arguments[i];
+				}
+			}
+			throw new IllegalArgumentException("value not set: " + id);
+		}
+	}
+}
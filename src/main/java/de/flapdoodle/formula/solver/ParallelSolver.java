@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Throwables;
+import de.flapdoodle.formula.calculate.ValueLookup;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// each slot is started as soon as all its sources are done
+final class ParallelSolver {
+	private final SlotContext context;
+	private final ValueLookup lookup;
+	private final Executor executor;
+	private final SolveOptions options;
+	@Nullable
+	private final PriorityBlockingQueue<Integer> ready;
+	private final AtomicIntegerArray pendingSources;
+	private final AtomicInteger remaining;
+	private final SolveLimits limits;
+	private final CompletableFuture<Void> done = new CompletableFuture<>();
+	// scheduled or running tasks, the context is only handed out if none is left
+	private final AtomicInteger active = new AtomicInteger();
+	private final CompletableFuture<Void> idle = new CompletableFuture<>();
+
+	private ParallelSolver(SlotContext context, ValueLookup lookup, Executor executor, SolveOptions options) {
+		this.context = context;
+		this.lookup = lookup;
+		this.executor = executor;
+		this.options = options;
+		this.pendingSources = new AtomicIntegerArray(context.plan().predecessorCount());
+		this.remaining = new AtomicInteger(context.plan().size());
+		this.limits = new SolveLimits(options);
+		this.ready = options.costModel().isPresent()
+			? readyQueue(options.costModel().get().criticalPath(context.plan()))
+			: null;
+	}
+
+	private void start() {
+		if (remaining.get() == 0) {
+			done.complete(null);
+		}
+		int[] predecessorCount = context.plan().predecessorCount();
+		for (int slot = 0; slot < predecessorCount.length; slot++) {
+			if (predecessorCount[slot] == 0) {
+				schedule(slot);
+			}
+		}
+	}
+
+	private void schedule(int slot) {
+		active.incrementAndGet();
+		try {
+			if (ready != null) {
+				// each task takes the most expensive ready slot
+				ready.add(slot);
+				executor.execute(() -> run(ready.poll()));
+			} else {
+				executor.execute(() -> run(slot));
+			}
+		}
+		catch (RuntimeException ex) {
+			done.completeExceptionally(ex);
+			inactive();
+		}
+	}
+
+	private void run(int slot) {
+		try {
+			if (!done.isDone()) {
+				evaluate(slot);
+			}
+		}
+		finally {
+			inactive();
+		}
+	}
+
+	private void evaluate(int slot) {
+		try {
+			StepEvaluator.evaluate(context.plan().step(slot), context, lookup, options, limits);
+		}
+		catch (Throwable ex) {
+			done.completeExceptionally(ex);
+			return;
+		}
+		if (limits.check(context, slot)) {
+			done.complete(null);
+			return;
+		}
+		SolverPlan plan = context.plan();
+		for (int i = plan.successorOffset(slot); i < plan.successorOffset(slot + 1); i++) {
+			int successor = plan.successorAt(i);
+			if (pendingSources.decrementAndGet(successor) == 0) {
+				schedule(successor);
+			}
+		}
+		if (remaining.decrementAndGet() == 0) {
+			done.complete(null);
+		}
+	}
+
+	private void inactive() {
+		if (active.decrementAndGet() == 0 && done.isDone()) {
+			idle.complete(null);
+		}
+	}
+
+	private void await() {
+		try {
+			done.join();
+		}
+		catch (CompletionException ex) {
+			awaitIdle();
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new RuntimeException(ex.getCause());
+		}
+		awaitIdle();
+		if (limits.reached()) {
+			context.stop(limits);
+		}
+	}
+
+	private void awaitIdle() {
+		if (active.get() == 0) {
+			idle.complete(null);
+		}
+		idle.join();
+	}
+
+	private static PriorityBlockingQueue<Integer> readyQueue(double[] criticalPath) {
+		return new PriorityBlockingQueue<>(Math.max(1, criticalPath.length),
+			(a, b) -> Double.compare(criticalPath[b], criticalPath[a]));
+	}
+
+	static SlotContext solve(SlotContext context, ValueLookup lookup, Executor executor, SolveOptions options) {
+		ParallelSolver solver = new ParallelSolver(context, lookup, executor, options);
+		solver.start();
+		solver.await();
+		return context;
+	}
+}
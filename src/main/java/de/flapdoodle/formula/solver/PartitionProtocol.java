@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.Calculation;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.ErrorMessage;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+// messages between PartitionedSolver and PartitionWorker, values are referenced by slot of the coordinator plan,
+// a worker resolves each value it needs once, by the position of a rule and one of its sources
+abstract class PartitionProtocol {
+	private PartitionProtocol() {
+		// no instance
+	}
+
+	static int fingerprint(Rules rules) {
+		int ret = rules.calculations().all().size();
+		for (Calculation<?> calculation : rules.calculations().all()) {
+			ret = 31 * (31 * ret + calculation.destination().toString().hashCode()) + calculation.sources().size();
+		}
+		for (Validation<?> validation : rules.validations().all()) {
+			ret = 31 * (31 * ret + validation.destination().toString().hashCode()) + validation.sources().size();
+		}
+		return ret;
+	}
+
+	// calculations first, then validations, destination is source -1
+	static Map<Value<?>, Long> references(Rules rules) {
+		Map<Value<?>, Long> ret = new HashMap<>();
+		int rule = 0;
+		for (Calculation<?> calculation : rules.calculations().all()) {
+			addReferences(ret, rule++, calculation.destination(), calculation.sources());
+		}
+		for (Validation<?> validation : rules.validations().all()) {
+			addReferences(ret, rule++, validation.destination(), validation.sources());
+		}
+		return ret;
+	}
+
+	private static void addReferences(Map<Value<?>, Long> references, int rule, Value<?> destination, Set<? extends ValueSource<?>> sources) {
+		references.putIfAbsent(destination, reference(rule, -1));
+		int source = 0;
+		for (ValueSource<?> it : sources) {
+			references.putIfAbsent(it, reference(rule, source++));
+		}
+	}
+
+	private static long reference(int rule, int source) {
+		return ((long) rule << 32) | (source + 1);
+	}
+
+	static final class References {
+		private final List<Calculation<?>> calculations;
+		private final List<Validation<?>> validations;
+		private final Map<Integer, List<ValueSource<?>>> sourcesOfRule = new HashMap<>();
+
+		References(Rules rules) {
+			this.calculations = rules.calculations().all();
+			this.validations = rules.validations().all();
+		}
+
+		Value<?> value(long reference) {
+			int rule = (int) (reference >>> 32);
+			int source = (int) (reference & 0xffffffffL) - 1;
+			if (source == -1) {
+				return rule < calculations.size()
+					? calculations.get(rule).destination()
+					: validations.get(rule - calculations.size()).destination();
+			}
+			return sourcesOfRule.computeIfAbsent(rule, it -> it < calculations.size()
+					? ImmutableList.copyOf(calculations.get(it).sources())
+					: ImmutableList.copyOf(validations.get(it - calculations.size()).sources()))
+				.get(source);
+		}
+	}
+
+	// sent once for each partition a worker solves, partition -1 if the worker gets no more partitions
+	static final class Assignment implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final int partition;
+		// values calculated or validated in this partition
+		final int[] slots;
+		// states of these values are sent with each request
+		final int[] knownSlots;
+		// validated values without calculation, lookup values are sent with each request
+		final int[] inputSlots;
+		// every value the worker has to know, including invalid references of known values
+		final int[] referencedSlots;
+		final long[] references;
+
+		Assignment(int partition, int[] slots, int[] knownSlots, int[] inputSlots, int[] referencedSlots, long[] references) {
+			this.partition = partition;
+			this.slots = slots;
+			this.knownSlots = knownSlots;
+			this.inputSlots = inputSlots;
+			this.referencedSlots = referencedSlots;
+			this.references = references;
+		}
+
+		boolean isLast() {
+			return partition == -1;
+		}
+
+		static Assignment last() {
+			return new Assignment(-1, new int[0], new int[0], new int[0], new int[0], new long[0]);
+		}
+	}
+
+	static final class Request implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final int partition;
+		// same order as Assignment.knownSlots
+		final SlotStates known;
+		// same order as Assignment.inputSlots
+		final Object[] inputValues;
+
+		Request(int partition, SlotStates known, Object[] inputValues) {
+			this.partition = partition;
+			this.known = known;
+			this.inputValues = inputValues;
+		}
+	}
+
+	// all requests of one worker in one wave, answered with one response for each request
+	static final class Requests implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final Request[] requests;
+
+		Requests(Request[] requests) {
+			this.requests = requests;
+		}
+	}
+
+	static final class Response implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		@Nullable
+		final SlotStates result;
+		@Nullable
+		final String failure;
+
+		private Response(@Nullable SlotStates result, @Nullable String failure) {
+			this.result = result;
+			this.failure = failure;
+		}
+
+		static Response of(@Nullable SlotStates result) {
+			return new Response(result, null);
+		}
+
+		static Response failed(String failure) {
+			return new Response(null, failure);
+		}
+	}
+
+	static final class SlotStates implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final int[] slots;
+		final byte[] states;
+		final Object[] values;
+		final SlotError[] errors;
+
+		SlotStates(int[] slots, byte[] states, Object[] values, SlotError[] errors) {
+			this.slots = slots;
+			this.states = states;
+			this.values = values;
+			this.errors = errors;
+		}
+	}
+
+	// invalid references by slot of the coordinator plan
+	static final class SlotError implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final String[] keys;
+		final Object[][] args;
+		final int[] invalidReferences;
+
+		private SlotError(String[] keys, Object[][] args, int[] invalidReferences) {
+			this.keys = keys;
+			this.args = args;
+			this.invalidReferences = invalidReferences;
+		}
+
+		ValidationError asValidationError(IntFunction<Value<?>> valueOfSlot) {
+			ErrorMessage[] messages = new ErrorMessage[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				messages[i] = ErrorMessage.of(keys[i], args[i]);
+			}
+			ImmutableSet.Builder<ValueSource<?>> references = ImmutableSet.builder();
+			for (int slot : invalidReferences) {
+				references.add((ValueSource<?>) valueOfSlot.apply(slot));
+			}
+			return ValidationError.of(Arrays.asList(messages), references.build());
+		}
+
+		static SlotError of(ValidationError error, ToIntFunction<Value<?>> slotOfValue) {
+			List<ErrorMessage> messages = error.errorMessages();
+			String[] keys = new String[messages.size()];
+			Object[][] args = new Object[messages.size()][];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = messages.get(i).key();
+				args[i] = messages.get(i).args().toArray();
+			}
+			int[] invalidReferences = error.invalidReferences().stream()
+				.mapToInt(slotOfValue)
+				.toArray();
+			return new SlotError(keys, args, invalidReferences);
+		}
+	}
+}
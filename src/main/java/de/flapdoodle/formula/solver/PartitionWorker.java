@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculation;
+import de.flapdoodle.formula.calculate.ValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.domain.HasRules;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// started by PartitionedSolver, messages are read from stdin and written to stdout
+// the rules are code, so the worker has to create all of them once to resolve the values of each assigned partition,
+// they are dropped after the last assignment and only the plans of the assigned partitions are kept
+public abstract class PartitionWorker {
+	private PartitionWorker() {
+		// no instance
+	}
+
+	public static void main(String[] args) throws Exception {
+		PrintStream protocol = System.out;
+		System.setOut(System.err);
+
+		Rules rules = rules(args[0]);
+
+		ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(protocol));
+		out.writeInt(PartitionProtocol.fingerprint(rules));
+		out.flush();
+
+		PartitionProtocol.References references = new PartitionProtocol.References(rules);
+		Map<Integer, PartitionPlan> plans = new HashMap<>();
+
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(System.in));
+		while (true) {
+			Object message;
+			try {
+				message = in.readObject();
+			}
+			catch (EOFException ex) {
+				return;
+			}
+
+			if (message instanceof PartitionProtocol.Assignment) {
+				PartitionProtocol.Assignment assignment = (PartitionProtocol.Assignment) message;
+				PartitionProtocol.Response response;
+				if (assignment.isLast()) {
+					rules = null;
+					references = null;
+					response = PartitionProtocol.Response.of(null);
+				} else {
+					response = assign(plans, rules, references, assignment);
+				}
+				out.writeObject(response);
+			} else {
+				for (PartitionProtocol.Request request : ((PartitionProtocol.Requests) message).requests) {
+					out.writeObject(solve(plans.get(request.partition), request));
+				}
+			}
+			out.reset();
+			out.flush();
+		}
+	}
+
+	static Rules rules(String rulesClassName) throws ReflectiveOperationException {
+		HasRules rules = (HasRules) Class.forName(rulesClassName).getDeclaredConstructor().newInstance();
+		return rules.addRulesTo(Rules.empty());
+	}
+
+	private static PartitionProtocol.Response assign(Map<Integer, PartitionPlan> plans, @Nullable Rules rules,
+		@Nullable PartitionProtocol.References references, PartitionProtocol.Assignment assignment) {
+		try {
+			Preconditions.checkState(rules != null && references != null, "partition %s assigned after last assignment", assignment.partition);
+			plans.put(assignment.partition, PartitionPlan.of(rules, references, assignment));
+			return PartitionProtocol.Response.of(null);
+		}
+		catch (RuntimeException ex) {
+			return PartitionProtocol.Response.failed(Throwables.getStackTraceAsString(ex));
+		}
+	}
+
+	static PartitionProtocol.Response solve(@Nullable PartitionPlan partitionPlan, PartitionProtocol.Request request) {
+		try {
+			Preconditions.checkState(partitionPlan != null, "partition %s not assigned", request.partition);
+			return PartitionProtocol.Response.of(partitionPlan.solve(request));
+		}
+		catch (RuntimeException ex) {
+			return PartitionProtocol.Response.failed(Throwables.getStackTraceAsString(ex));
+		}
+	}
+
+	// plan of the rules of one partition, everything else is known or a lookup value
+	static final class PartitionPlan {
+		private final SolverPlan plan;
+		private final int[] slots;
+		private final int[] localSlots;
+		private final int[] localKnownSlots;
+		private final Value<?>[] inputs;
+		private final Map<Integer, Value<?>> valueOfSlot;
+		private final Map<Value<?>, Integer> slotOfValue;
+
+		private PartitionPlan(SolverPlan plan, int[] slots, int[] localSlots, int[] localKnownSlots, Value<?>[] inputs,
+			Map<Integer, Value<?>> valueOfSlot, Map<Value<?>, Integer> slotOfValue) {
+			this.plan = plan;
+			this.slots = slots;
+			this.localSlots = localSlots;
+			this.localKnownSlots = localKnownSlots;
+			this.inputs = inputs;
+			this.valueOfSlot = valueOfSlot;
+			this.slotOfValue = slotOfValue;
+		}
+
+		PartitionProtocol.SlotStates solve(PartitionProtocol.Request request) {
+			SlotContext context = new SlotContext(plan);
+			PartitionProtocol.SlotStates known = request.known;
+			for (int i = 0; i < localKnownSlots.length; i++) {
+				if (known.states[i] != SlotContext.UNSET) {
+					context.set(localKnownSlots[i], known.states[i], known.values[i],
+						known.errors[i] != null ? known.errors[i].asValidationError(valueOfSlot::get) : null);
+				}
+			}
+
+			ValueLookup lookup = new InputLookup(inputs, request.inputValues);
+			SolveOptions options = SolveOptions.defaults();
+			SolveLimits limits = new SolveLimits(options);
+			for (int localSlot : localSlots) {
+				StepEvaluator.evaluate(plan.step(localSlot), context, lookup, options, limits);
+			}
+
+			byte[] states = new byte[slots.length];
+			Object[] values = new Object[slots.length];
+			PartitionProtocol.SlotError[] errors = new PartitionProtocol.SlotError[slots.length];
+			for (int i = 0; i < slots.length; i++) {
+				states[i] = context.state(localSlots[i]);
+				values[i] = context.value(localSlots[i]);
+				if (states[i] == SlotContext.INVALID) {
+					errors[i] = PartitionProtocol.SlotError.of(context.error(localSlots[i]), slotOfValue::get);
+				}
+			}
+			return new PartitionProtocol.SlotStates(slots, states, values, errors);
+		}
+
+		static PartitionPlan of(Rules rules, PartitionProtocol.References references, PartitionProtocol.Assignment assignment) {
+			Map<Integer, Value<?>> valueOfSlot = new HashMap<>();
+			Map<Value<?>, Integer> slotOfValue = new HashMap<>();
+			for (int i = 0; i < assignment.referencedSlots.length; i++) {
+				Value<?> value = references.value(assignment.references[i]);
+				valueOfSlot.put(assignment.referencedSlots[i], value);
+				slotOfValue.put(value, assignment.referencedSlots[i]);
+			}
+
+			List<Calculation<?>> calculations = new ArrayList<>();
+			List<Validation<?>> validations = new ArrayList<>();
+			for (int slot : assignment.slots) {
+				Value<?> value = valueOfSlot.get(slot);
+				Calculation<?> calculation = rules.calculations().get(value);
+				if (calculation != null) {
+					calculations.add(calculation);
+				}
+				Validation<?> validation = rules.validations().get(value);
+				if (validation != null) {
+					validations.add(validation);
+				}
+			}
+			SolverPlan plan = ValueDependencyGraphBuilder.build(Rules.empty()
+					.addCalculations(calculations)
+					.addValidations(validations))
+				.plan();
+
+			// evaluated in order of the partition plan
+			int[] slots = assignment.slots.clone();
+			int[] localSlots = new int[slots.length];
+			for (int i = 0; i < slots.length; i++) {
+				localSlots[i] = plan.slotOf(valueOfSlot.get(slots[i]));
+			}
+			sortBy(localSlots, slots);
+
+			int[] localKnownSlots = new int[assignment.knownSlots.length];
+			for (int i = 0; i < localKnownSlots.length; i++) {
+				localKnownSlots[i] = plan.slotOf(valueOfSlot.get(assignment.knownSlots[i]));
+			}
+			Value<?>[] inputs = new Value<?>[assignment.inputSlots.length];
+			for (int i = 0; i < inputs.length; i++) {
+				inputs[i] = valueOfSlot.get(assignment.inputSlots[i]);
+			}
+			return new PartitionPlan(plan, slots, localSlots, localKnownSlots, inputs, valueOfSlot, slotOfValue);
+		}
+
+		private static void sortBy(int[] keys, int[] values) {
+			Integer[] order = new Integer[keys.length];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> Integer.compare(keys[a], keys[b]));
+			int[] sortedKeys = new int[keys.length];
+			int[] sortedValues = new int[values.length];
+			for (int i = 0; i < order.length; i++) {
+				sortedKeys[i] = keys[order[i]];
+				sortedValues[i] = values[order[i]];
+			}
+			System.arraycopy(sortedKeys, 0, keys, 0, keys.length);
+			System.arraycopy(sortedValues, 0, values, 0, values.length);
+		}
+	}
+
+	private static final class InputLookup implements ValueLookup {
+		private final Map<Value<?>, Object> values = new HashMap<>();
+
+		private InputLookup(Value<?>[] inputs, Object[] values) {
+			for (int i = 0; i < inputs.length; i++) {
+				this.values.put(inputs[i], values[i]);
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> @Nullable T get(Value<T> id) {
+			if (!values.containsKey(id)) {
+				throw new IllegalArgumentException("value not set: " + id);
+			}
+			return (T) values.get(id);
+		}
+	}
+}
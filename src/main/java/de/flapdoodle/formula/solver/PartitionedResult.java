@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+// result collected by PartitionedSolver, values are boxed
+final class PartitionedResult implements Result {
+	private final Value<?>[] valueOfSlot;
+	private final Map<Value<?>, Integer> slotOfValue;
+	private final byte[] state;
+	private final Object[] values;
+	private final ValidationError[] errors;
+
+	// arrays are owned by this instance
+	PartitionedResult(Value<?>[] valueOfSlot, Map<Value<?>, Integer> slotOfValue, byte[] state, Object[] values, ValidationError[] errors) {
+		this.valueOfSlot = valueOfSlot;
+		this.slotOfValue = slotOfValue;
+		this.state = state;
+		this.values = values;
+		this.errors = errors;
+	}
+
+	@Override
+	public Set<Value<?>> validatedValues() {
+		ImmutableSet.Builder<Value<?>> builder = ImmutableSet.builder();
+		for (int slot = 0; slot < state.length; slot++) {
+			if (state[slot] == SlotContext.VALID) {
+				builder.add(valueOfSlot[slot]);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public Map<Value<?>, ValidationError> validationErrors() {
+		ImmutableMap.Builder<Value<?>, ValidationError> builder = ImmutableMap.builder();
+		for (int slot = 0; slot < state.length; slot++) {
+			if (state[slot] == SlotContext.INVALID) {
+				builder.put(valueOfSlot[slot], errors[slot]);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> @Nullable T get(Value<T> id) {
+		Integer slot = slotOfValue.get(id);
+		if (slot != null) {
+			if (state[slot] == SlotContext.INVALID) {
+				return null;
+			}
+			if (state[slot] == SlotContext.VALID) {
+				return (T) values[slot];
+			}
+		}
+		throw new NullPointerException("value " + id + " not set");
+	}
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import de.flapdoodle.formula.Unvalidated;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.ValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.ValidationError;
+import de.flapdoodle.formula.values.domain.HasRules;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// solves partitions of a graph in worker processes, each worker creates the rules from a HasRules class
+// with a public no arg constructor, all values and validation error arguments must be serializable
+// the rules are code and can not be created in parts: while starting, this solver builds the whole graph and each
+// worker creates all rules, so the peak heap of each process is still the whole model, afterwards this solver keeps
+// only the values and which partition needs which other values and each worker keeps only the plans of its own partitions
+// partitions of one wave are sent to each worker in one message, waves are solved one after another because a wave
+// needs the results of all earlier waves
+public final class PartitionedSolver implements AutoCloseable {
+	private final Value<?>[] valueOfSlot;
+	private final Map<Value<?>, Integer> slotOfValue;
+	private final Set<Value<?>> calculationDestinations;
+	// values without rules, taken from the lookup here
+	private final int[] inputSlots;
+	private final Partition[] partitions;
+	private final int[][] waves;
+	private final List<Worker> workers;
+	private final ExecutorService executor;
+
+	private PartitionedSolver(Value<?>[] valueOfSlot, Map<Value<?>, Integer> slotOfValue, Set<Value<?>> calculationDestinations,
+		int[] inputSlots, Partition[] partitions, int[][] waves, List<Worker> workers) {
+		this.valueOfSlot = valueOfSlot;
+		this.slotOfValue = slotOfValue;
+		this.calculationDestinations = calculationDestinations;
+		this.inputSlots = inputSlots;
+		this.partitions = partitions;
+		this.waves = waves;
+		this.workers = workers;
+		this.executor = Executors.newFixedThreadPool(workers.size());
+	}
+
+	public int partitionCount() {
+		return partitions.length;
+	}
+
+	public Result solve(ValueLookup lookup) {
+		Solver.checkShadowedValues(calculationDestinations, lookup);
+
+		byte[] state = new byte[valueOfSlot.length];
+		Object[] values = new Object[valueOfSlot.length];
+		ValidationError[] errors = new ValidationError[valueOfSlot.length];
+		PartitionProtocol.SlotError[] slotErrors = new PartitionProtocol.SlotError[valueOfSlot.length];
+
+		for (int slot : inputSlots) {
+			Value<?> value = valueOfSlot[slot];
+			if (value instanceof Unvalidated) {
+				state[slot] = SlotContext.UNVALIDATED;
+				values[slot] = lookup.get(((Unvalidated<?>) value).wrapped());
+			} else {
+				state[slot] = SlotContext.VALID;
+				values[slot] = lookup.get(value);
+			}
+		}
+
+		for (int[] wave : waves) {
+			List<List<PartitionProtocol.Request>> requestsOfWorker = new ArrayList<>();
+			for (int i = 0; i < workers.size(); i++) {
+				requestsOfWorker.add(new ArrayList<>());
+			}
+			for (int index : wave) {
+				Partition partition = partitions[index];
+				if (partition.slots.length != 0) {
+					requestsOfWorker.get(partition.worker).add(partition.request(valueOfSlot, state, values, slotErrors, lookup));
+				}
+			}
+
+			List<CompletableFuture<List<PartitionProtocol.SlotStates>>> results = new ArrayList<>();
+			for (int i = 0; i < workers.size(); i++) {
+				Worker worker = workers.get(i);
+				List<PartitionProtocol.Request> requests = requestsOfWorker.get(i);
+				if (!requests.isEmpty()) {
+					results.add(CompletableFuture.supplyAsync(() -> worker.solve(requests), executor));
+				}
+			}
+
+			for (CompletableFuture<List<PartitionProtocol.SlotStates>> result : results) {
+				for (PartitionProtocol.SlotStates slotStates : join(result)) {
+					for (int i = 0; i < slotStates.slots.length; i++) {
+						int slot = slotStates.slots[i];
+						state[slot] = slotStates.states[i];
+						values[slot] = slotStates.values[i];
+						slotErrors[slot] = slotStates.errors[i];
+						errors[slot] = slotErrors[slot] != null ? slotErrors[slot].asValidationError(it -> valueOfSlot[it]) : null;
+					}
+				}
+			}
+		}
+		return new PartitionedResult(valueOfSlot, slotOfValue, state, values, errors);
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new RuntimeException(ex.getCause());
+		}
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+		workers.forEach(Worker::close);
+	}
+
+	public static PartitionedSolver start(Class<? extends HasRules> rulesClass, int workerCount, int maxPartitionSize) throws IOException {
+		Preconditions.checkArgument(workerCount > 0, "workerCount must be > 0: %s", workerCount);
+
+		Rules rules;
+		try {
+			rules = PartitionWorker.rules(rulesClass.getName());
+		}
+		catch (ReflectiveOperationException ex) {
+			throw new IllegalArgumentException("could not create rules from " + rulesClass, ex);
+		}
+		int fingerprint = PartitionProtocol.fingerprint(rules);
+		SolverPlan plan = ValueDependencyGraphBuilder.build(rules).plan();
+		Partitions partitions = Partitions.of(plan, maxPartitionSize);
+		Map<Value<?>, Long> references = PartitionProtocol.references(rules);
+
+		List<Worker> workers = new ArrayList<>();
+		try {
+			for (int i = 0; i < workerCount; i++) {
+				Worker worker = Worker.start(rulesClass);
+				workers.add(worker);
+				Preconditions.checkState(worker.fingerprint == fingerprint, "worker %s created different rules", i);
+			}
+
+			Partition[] partitionList = new Partition[partitions.size()];
+			for (int index = 0; index < partitionList.length; index++) {
+				partitionList[index] = Partition.of(plan, index, partitions.partition(index), index % workerCount);
+				if (partitionList[index].slots.length != 0) {
+					workers.get(partitionList[index].worker).send(partitionList[index].assignment(plan, references));
+				}
+			}
+			for (Worker worker : workers) {
+				worker.send(PartitionProtocol.Assignment.last());
+			}
+
+			Value<?>[] valueOfSlot = new Value<?>[plan.size()];
+			ImmutableMap.Builder<Value<?>, Integer> slotOfValue = ImmutableMap.builder();
+			List<Integer> inputSlots = new ArrayList<>();
+			for (int slot = 0; slot < plan.size(); slot++) {
+				valueOfSlot[slot] = plan.value(slot);
+				slotOfValue.put(plan.value(slot), slot);
+				if (!hasRule(plan.step(slot))) {
+					inputSlots.add(slot);
+				}
+			}
+
+			return new PartitionedSolver(valueOfSlot, slotOfValue.build(), plan.calculationDestinations(),
+				inputSlots.stream().mapToInt(Integer::intValue).toArray(), partitionList, partitions.waves(), workers);
+		}
+		catch (IOException | RuntimeException ex) {
+			workers.forEach(Worker::close);
+			throw ex;
+		}
+	}
+
+	private static boolean hasRule(SolverPlan.Step<?> step) {
+		return step.calculation != null || step.validation != null;
+	}
+
+	// slots of the coordinator plan
+	private static final class Partition {
+		private final int index;
+		private final int worker;
+		// values with rules
+		private final int[] slots;
+		// sources of these values from outside and values without rules
+		private final int[] knownSlots;
+		// validated values without calculation
+		private final int[] inputSlots;
+
+		private Partition(int index, int worker, int[] slots, int[] knownSlots, int[] inputSlots) {
+			this.index = index;
+			this.worker = worker;
+			this.slots = slots;
+			this.knownSlots = knownSlots;
+			this.inputSlots = inputSlots;
+		}
+
+		private PartitionProtocol.Request request(Value<?>[] valueOfSlot, byte[] state, Object[] values, PartitionProtocol.SlotError[] errors, ValueLookup lookup) {
+			byte[] knownStates = new byte[knownSlots.length];
+			Object[] knownValues = new Object[knownSlots.length];
+			PartitionProtocol.SlotError[] knownErrors = new PartitionProtocol.SlotError[knownSlots.length];
+			for (int i = 0; i < knownSlots.length; i++) {
+				knownStates[i] = state[knownSlots[i]];
+				knownValues[i] = values[knownSlots[i]];
+				knownErrors[i] = errors[knownSlots[i]];
+			}
+			return new PartitionProtocol.Request(index, new PartitionProtocol.SlotStates(knownSlots, knownStates, knownValues, knownErrors),
+				Arrays.stream(inputSlots).mapToObj(slot -> lookup.get(valueOfSlot[slot])).toArray());
+		}
+
+		private PartitionProtocol.Assignment assignment(SolverPlan plan, Map<Value<?>, Long> references) {
+			Set<Integer> referenced = new LinkedHashSet<>();
+			Arrays.stream(slots).forEach(referenced::add);
+			Arrays.stream(knownSlots).forEach(referenced::add);
+			// invalid references of known values
+			for (int slot : knownSlots) {
+				Arrays.stream(plan.step(slot).predecessors).forEach(referenced::add);
+			}
+			int[] referencedSlots = referenced.stream().mapToInt(Integer::intValue).toArray();
+			long[] referenceIds = Arrays.stream(referencedSlots)
+				.mapToLong(slot -> references.get(plan.value(slot)))
+				.toArray();
+			return new PartitionProtocol.Assignment(index, slots, knownSlots, inputSlots, referencedSlots, referenceIds);
+		}
+
+		private static Partition of(SolverPlan plan, int index, int[] partition, int worker) {
+			int[] slots = Arrays.stream(partition)
+				.filter(slot -> hasRule(plan.step(slot)))
+				.toArray();
+			Set<Integer> inPartition = new LinkedHashSet<>();
+			Arrays.stream(slots).forEach(inPartition::add);
+
+			Set<Integer> known = new LinkedHashSet<>();
+			for (int slot : slots) {
+				for (int predecessor : plan.step(slot).predecessors) {
+					if (!inPartition.contains(predecessor)) {
+						known.add(predecessor);
+					}
+				}
+			}
+			int[] inputSlots = Arrays.stream(slots)
+				.filter(slot -> plan.step(slot).calculation == null)
+				.toArray();
+			return new Partition(index, worker, slots, known.stream().mapToInt(Integer::intValue).toArray(), inputSlots);
+		}
+	}
+
+	private static final class Worker {
+		private final Process process;
+		private final ObjectOutputStream out;
+		private final ObjectInputStream in;
+		private final int fingerprint;
+
+		private Worker(Process process) throws IOException {
+			this.process = process;
+			this.out = new ObjectOutputStream(new BufferedOutputStream(process.getOutputStream()));
+			this.out.flush();
+			this.in = new ObjectInputStream(new BufferedInputStream(process.getInputStream()));
+			this.fingerprint = in.readInt();
+		}
+
+		// all responses are read before failing, so the next batch starts with its own responses
+		private synchronized List<PartitionProtocol.SlotStates> solve(List<PartitionProtocol.Request> requests) {
+			write(new PartitionProtocol.Requests(requests.toArray(new PartitionProtocol.Request[0])));
+			List<PartitionProtocol.Response> responses = new ArrayList<>();
+			for (int i = 0; i < requests.size(); i++) {
+				responses.add(read());
+			}
+			List<PartitionProtocol.SlotStates> ret = new ArrayList<>();
+			for (PartitionProtocol.Response response : responses) {
+				ret.add(resultOf(response));
+			}
+			return ret;
+		}
+
+		@Nullable
+		private synchronized PartitionProtocol.SlotStates send(Object message) {
+			write(message);
+			return resultOf(read());
+		}
+
+		private void write(Object message) {
+			try {
+				out.writeObject(message);
+				out.reset();
+				out.flush();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("communication with worker failed", ex);
+			}
+		}
+
+		private PartitionProtocol.Response read() {
+			try {
+				return (PartitionProtocol.Response) in.readObject();
+			}
+			catch (IOException | ClassNotFoundException ex) {
+				throw new IllegalStateException("communication with worker failed", ex);
+			}
+		}
+
+		@Nullable
+		private static PartitionProtocol.SlotStates resultOf(PartitionProtocol.Response response) {
+			if (response.failure != null) {
+				throw new IllegalStateException("partition failed in worker: " + response.failure);
+			}
+			return response.result;
+		}
+
+		private void close() {
+			try {
+				out.close();
+			}
+			catch (IOException ex) {
+				// worker is destroyed anyway
+			}
+			process.destroy();
+		}
+
+		private static Worker start(Class<? extends HasRules> rulesClass) throws IOException {
+			String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+			Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				PartitionWorker.class.getName(), rulesClass.getName())
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+			try {
+				return new Worker(process);
+			}
+			catch (IOException ex) {
+				process.destroy();
+				throw ex;
+			}
+		}
+	}
+}
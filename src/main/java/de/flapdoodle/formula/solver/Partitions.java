@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// graph partitions without cycles between them, independent components are packed together,
+// components which are too large are cut into chunks of a depth first topological order, a greedy heuristic
+// which keeps chains of values together, it does not minimise the number of edges between partitions
+final class Partitions {
+	private final int[][] partitions;
+	private final int[][] waves;
+
+	private Partitions(int[][] partitions, int[][] waves) {
+		this.partitions = partitions;
+		this.waves = waves;
+	}
+
+	int[] partition(int index) {
+		return partitions[index];
+	}
+
+	int size() {
+		return partitions.length;
+	}
+
+	// partitions of a wave only depend on partitions of earlier waves
+	int[][] waves() {
+		return waves;
+	}
+
+	static Partitions of(SolverPlan plan, int maxPartitionSize) {
+		Preconditions.checkArgument(maxPartitionSize > 0, "maxPartitionSize must be > 0: %s", maxPartitionSize);
+
+		List<List<Integer>> partitions = new ArrayList<>();
+		List<Integer> packed = new ArrayList<>();
+
+		int[][] components = plan.components().clone();
+		Arrays.sort(components, Comparator.comparingInt((int[] it) -> it.length).reversed());
+
+		for (int[] component : components) {
+			if (component.length > maxPartitionSize) {
+				int[] ordered = depthFirstOrder(plan, component);
+				for (int start = 0; start < ordered.length; start += maxPartitionSize) {
+					partitions.add(boxed(ordered, start, Math.min(ordered.length, start + maxPartitionSize)));
+				}
+			} else {
+				if (packed.size() + component.length > maxPartitionSize) {
+					partitions.add(packed);
+					packed = new ArrayList<>();
+				}
+				packed.addAll(boxed(component, 0, component.length));
+			}
+		}
+		if (!packed.isEmpty()) {
+			partitions.add(packed);
+		}
+
+		int[][] slotsOfPartition = new int[partitions.size()][];
+		int[] partitionOfSlot = new int[plan.size()];
+		for (int index = 0; index < slotsOfPartition.length; index++) {
+			slotsOfPartition[index] = partitions.get(index).stream().mapToInt(Integer::intValue).sorted().toArray();
+			for (int slot : slotsOfPartition[index]) {
+				partitionOfSlot[slot] = index;
+			}
+		}
+
+		return new Partitions(slotsOfPartition, waves(plan, slotsOfPartition, partitionOfSlot));
+	}
+
+	// kahn with a stack instead of a queue, the last value which got ready is taken next
+	private static int[] depthFirstOrder(SolverPlan plan, int[] component) {
+		int[] predecessorCount = plan.predecessorCount().clone();
+		int[] stack = new int[component.length];
+		int top = 0;
+		for (int i = component.length - 1; i >= 0; i--) {
+			if (predecessorCount[component[i]] == 0) {
+				stack[top++] = component[i];
+			}
+		}
+
+		int[] ret = new int[component.length];
+		int count = 0;
+		while (top > 0) {
+			int slot = stack[--top];
+			ret[count++] = slot;
+			for (int index = plan.successorOffset(slot + 1) - 1; index >= plan.successorOffset(slot); index--) {
+				int successor = plan.successorAt(index);
+				if (--predecessorCount[successor] == 0) {
+					stack[top++] = successor;
+				}
+			}
+		}
+		Preconditions.checkState(count == component.length, "component is not acyclic");
+		return ret;
+	}
+
+	private static int[][] waves(SolverPlan plan, int[][] slotsOfPartition, int[] partitionOfSlot) {
+		int[] wave = new int[slotsOfPartition.length];
+		int waveCount = slotsOfPartition.length > 0 ? 1 : 0;
+		// chunks of a component are created in topological order, so all dependencies have a lower index
+		for (int index = 0; index < slotsOfPartition.length; index++) {
+			for (int slot : slotsOfPartition[index]) {
+				for (int predecessor : plan.step(slot).predecessors) {
+					int other = partitionOfSlot[predecessor];
+					if (other != index) {
+						Preconditions.checkState(other < index, "partition %s depends on later partition %s", index, other);
+						wave[index] = Math.max(wave[index], wave[other] + 1);
+					}
+				}
+			}
+			waveCount = Math.max(waveCount, wave[index] + 1);
+		}
+
+		List<List<Integer>> waves = new ArrayList<>();
+		for (int i = 0; i < waveCount; i++) {
+			waves.add(new ArrayList<>());
+		}
+		for (int index = 0; index < wave.length; index++) {
+			waves.get(wave[index]).add(index);
+		}
+		return waves.stream()
+			.map(it -> it.stream().mapToInt(Integer::intValue).toArray())
+			.toArray(int[][]::new);
+	}
+
+	private static List<Integer> boxed(int[] slots, int start, int end) {
+		List<Integer> ret = new ArrayList<>(end - start);
+		for (int i = start; i < end; i++) {
+			ret.add(slots[i]);
+		}
+		return ret;
+	}
+}
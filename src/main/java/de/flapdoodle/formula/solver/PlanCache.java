@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import de.flapdoodle.formula.rules.Rules;
+
+import java.util.concurrent.ExecutionException;
+
+// value graphs keyed by rules fingerprint, so each distinct set of rules is only built once,
+// the plan is the one cached by the value graph
+public final class PlanCache {
+	private final Cache<Key, ValueGraph> cache;
+
+	private PlanCache(Cache<Key, ValueGraph> cache) {
+		this.cache = cache;
+	}
+
+	public SolverPlan plan(Rules rules) {
+		return valueGraph(rules).plan();
+	}
+
+	public ValueGraph valueGraph(Rules rules) {
+		try {
+			return cache.get(new Key(rules), () -> ValueDependencyGraphBuilder.build(rules));
+		}
+		catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	public long hitCount() {
+		return cache.stats().hitCount();
+	}
+
+	public long missCount() {
+		return cache.stats().missCount();
+	}
+
+	public long evictionCount() {
+		return cache.stats().evictionCount();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public static PlanCache maximumSize(long maximumSize) {
+		Preconditions.checkArgument(maximumSize > 0, "maximumSize must be > 0: %s", maximumSize);
+		return new PlanCache(CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.recordStats()
+			.build());
+	}
+
+	private static final class Key {
+		private final Rules rules;
+
+		private Key(Rules rules) {
+			this.rules = rules;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			return rules.sameRulesAs(((Key) o).rules);
+		}
+
+		@Override
+		public int hashCode() {
+			return rules.fingerprint();
+		}
+	}
+}
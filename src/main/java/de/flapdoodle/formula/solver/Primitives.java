@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.values.NamedDouble;
+import de.flapdoodle.formula.values.NamedInt;
+import de.flapdoodle.formula.values.NamedLong;
+
+import javax.annotation.Nullable;
+
+// primitive slots store their value as long bits instead of a boxed object
+abstract class Primitives {
+	static final byte OBJECT = 0;
+	static final byte DOUBLE = 1;
+	static final byte LONG = 2;
+	static final byte INT = 3;
+
+	// marks a slot value stored as long bits
+	static final Object PRIMITIVE = new Object() {
+		@Override
+		public String toString() {
+			return "<primitive>";
+		}
+	};
+
+	private Primitives() {
+		// no instance
+	}
+
+	static byte kindOf(Value<?> value) {
+		if (value instanceof NamedDouble) return DOUBLE;
+		if (value instanceof NamedLong) return LONG;
+		if (value instanceof NamedInt) return INT;
+		return OBJECT;
+	}
+
+	static long bits(double value) {
+		return Double.doubleToRawLongBits(value);
+	}
+
+	static double doubleOf(long bits) {
+		return Double.longBitsToDouble(bits);
+	}
+
+	static long unbox(byte kind, Object value) {
+		switch (kind) {
+			case DOUBLE:
+				return bits((Double) value);
+			case LONG:
+				return (Long) value;
+			case INT:
+				return (Integer) value;
+			default:
+				throw new IllegalArgumentException("not a primitive kind: " + kind);
+		}
+	}
+
+	static Object box(byte kind, long bits) {
+		switch (kind) {
+			case DOUBLE:
+				return doubleOf(bits);
+			case LONG:
+				return bits;
+			case INT:
+				return (int) bits;
+			default:
+				throw new IllegalArgumentException("not a primitive kind: " + kind);
+		}
+	}
+
+	static @Nullable Object boxIfPrimitive(byte kind, @Nullable Object value, long bits) {
+		return value == PRIMITIVE ? box(kind, bits) : value;
+	}
+}
@@ -16,11 +16,13 @@
  */
 package de.flapdoodle.formula.solver;
 
+import com.google.common.base.Preconditions;
 import de.flapdoodle.formula.Value;
 import de.flapdoodle.formula.validation.ValidationError;
 import de.flapdoodle.types.Either;
 
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,6 +33,33 @@ public interface Result {
 
 	@org.immutables.value.Value.Auxiliary <T> @Nullable T get(Value<T> id);
 
+	@org.immutables.value.Value.Auxiliary
+	default double getDouble(Value<Double> id) {
+		return Preconditions.checkNotNull(get(id), "value %s is null", id);
+	}
+
+	@org.immutables.value.Value.Auxiliary
+	default long getLong(Value<Long> id) {
+		return Preconditions.checkNotNull(get(id), "value %s is null", id);
+	}
+
+	@org.immutables.value.Value.Auxiliary
+	default int getInt(Value<Integer> id) {
+		return Preconditions.checkNotNull(get(id), "value %s is null", id);
+	}
+
+	// values not calculated because of a timeout or cancellation
+	@org.immutables.value.Value.Auxiliary
+	default Set<Value<?>> timedOut() {
+		return Collections.emptySet();
+	}
+
+	// solving stopped early, values after this point are not set
+	@org.immutables.value.Value.Auxiliary
+	default boolean isTruncated() {
+		return false;
+	}
+
 	@org.immutables.value.Value.Auxiliary
 	default <T> Either<T, ValidationError> valueOrError(Value<T> id) {
 		ValidationError errors = validationErrors().get(id);
@@ -0,0 +1,384 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.validation.ErrorMessage;
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// binary snapshot of a result, values are referenced by their stable name
+// magic and version are followed by a body of length prefixed chunks, a chunk of length 0 ends the snapshot,
+// value names and codec ids are written where they are used first
+public abstract class ResultSnapshots {
+	private static final int MAGIC = 0x46534e50;
+	private static final int VERSION = 2;
+	private static final int NULL_VALUE = -1;
+	private static final int CHUNK_SIZE = 8192;
+
+	private ResultSnapshots() {
+		// no instance
+	}
+
+	// the channel is not closed
+	public static void write(Result result, WritableByteChannel channel, ValueCodecs codecs, ValueNames names) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		header.putInt(MAGIC).putInt(VERSION).flip();
+		writeFully(channel, header);
+
+		ChunkedOutputStream chunks = new ChunkedOutputStream(channel);
+		Writer writer = new Writer(new DataOutputStream(chunks), codecs, names);
+
+		Set<Value<?>> validatedValues = result.validatedValues();
+		Map<Value<?>, ValidationError> validationErrors = result.validationErrors();
+		Set<Value<?>> timedOut = result.timedOut();
+
+		writer.out.writeBoolean(result.isTruncated());
+		writer.out.writeInt(validatedValues.size() + validationErrors.size() + timedOut.size());
+
+		for (Value<?> value : validatedValues) {
+			writer.id(value);
+			writer.out.writeByte(SlotContext.VALID);
+			writer.value(result.get(value));
+		}
+		for (Map.Entry<Value<?>, ValidationError> entry : validationErrors.entrySet()) {
+			writer.id(entry.getKey());
+			writer.out.writeByte(SlotContext.INVALID);
+			writer.error(entry.getValue());
+		}
+		for (Value<?> value : timedOut) {
+			writer.id(value);
+			writer.out.writeByte(SlotContext.TIMED_OUT);
+		}
+		chunks.finish();
+	}
+
+	// all values of the snapshot must be part of the plan, the channel is not read past the end of the snapshot
+	public static Result read(SolverPlan plan, ReadableByteChannel channel, ValueCodecs codecs, ValueNames names) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		readFully(channel, header);
+		header.flip();
+		if (header.getInt() != MAGIC) {
+			throw new IOException("not a result snapshot");
+		}
+		int version = header.getInt();
+		if (version != VERSION) {
+			throw new IOException("unsupported snapshot version: " + version);
+		}
+
+		ChunkedInputStream chunks = new ChunkedInputStream(channel);
+		Reader reader = new Reader(new DataInputStream(chunks), plan, codecs, names);
+
+		SlotContext context = new SlotContext(plan);
+		if (reader.in.readBoolean()) {
+			context.truncate();
+		}
+		int entries = reader.in.readInt();
+		for (int i = 0; i < entries; i++) {
+			int slot = reader.slot();
+			byte state = reader.in.readByte();
+			switch (state) {
+				case SlotContext.VALID:
+					context.setValid(slot, reader.value());
+					break;
+				case SlotContext.INVALID:
+					context.setInvalid(slot, reader.error());
+					break;
+				case SlotContext.TIMED_OUT:
+					context.setTimedOut(slot);
+					break;
+				default:
+					throw new IOException("unknown state: " + state);
+			}
+		}
+		if (chunks.read() != -1) {
+			throw new IOException("unexpected data after last entry");
+		}
+		return context.freeze();
+	}
+
+	private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("snapshot incomplete");
+			}
+		}
+	}
+
+	private static final class Writer {
+		private final DataOutputStream out;
+		private final ValueCodecs codecs;
+		private final ValueNames names;
+		private final Map<Value<?>, Integer> ids = new HashMap<>();
+		private final Map<String, Integer> codecIds = new HashMap<>();
+
+		private Writer(DataOutputStream out, ValueCodecs codecs, ValueNames names) {
+			this.out = out;
+			this.codecs = codecs;
+			this.names = names;
+		}
+
+		// a new id is followed by the name of the value
+		private void id(Value<?> value) throws IOException {
+			Integer id = ids.get(value);
+			if (id != null) {
+				out.writeInt(id);
+			} else {
+				String name = names.nameOf(value);
+				if (name == null) {
+					throw new IllegalArgumentException("no stable name for " + value);
+				}
+				id = ids.size();
+				ids.put(value, id);
+				out.writeInt(id);
+				out.writeUTF(name);
+			}
+		}
+
+		// a new codec id is followed by the id of the codec
+		private <T> void value(@Nullable T value) throws IOException {
+			if (value == null) {
+				out.writeInt(NULL_VALUE);
+			} else {
+				ValueCodec<? super T> codec = codecs.codecFor(value);
+				Integer codecId = codecIds.get(codec.id());
+				if (codecId != null) {
+					out.writeInt(codecId);
+				} else {
+					codecId = codecIds.size();
+					codecIds.put(codec.id(), codecId);
+					out.writeInt(codecId);
+					out.writeUTF(codec.id());
+				}
+				codec.write(value, out);
+			}
+		}
+
+		private void error(ValidationError error) throws IOException {
+			out.writeInt(error.errorMessages().size());
+			for (ErrorMessage message : error.errorMessages()) {
+				out.writeUTF(message.key());
+				out.writeInt(message.args().size());
+				for (Object arg : message.args()) {
+					value(arg);
+				}
+			}
+			out.writeInt(error.invalidReferences().size());
+			for (ValueSource<?> reference : error.invalidReferences()) {
+				id(reference);
+			}
+		}
+	}
+
+	private static final class Reader {
+		private final DataInputStream in;
+		private final SolverPlan plan;
+		private final ValueCodecs codecs;
+		private final ValueNames names;
+		private final List<Integer> slots = new ArrayList<>();
+		private final List<ValueCodec<?>> codecsById = new ArrayList<>();
+
+		private Reader(DataInputStream in, SolverPlan plan, ValueCodecs codecs, ValueNames names) {
+			this.in = in;
+			this.plan = plan;
+			this.codecs = codecs;
+			this.names = names;
+		}
+
+		private int slot() throws IOException {
+			int id = in.readInt();
+			if (id < slots.size()) {
+				return slots.get(id);
+			}
+			if (id != slots.size()) {
+				throw new IOException("invalid value id: " + id);
+			}
+			String name = in.readUTF();
+			Value<?> value = names.valueOf(name);
+			int slot = value != null ? plan.slotOf(value) : -1;
+			if (slot == -1) {
+				throw new IOException("unknown value: " + name);
+			}
+			slots.add(slot);
+			return slot;
+		}
+
+		private @Nullable Object value() throws IOException {
+			int codecId = in.readInt();
+			if (codecId == NULL_VALUE) {
+				return null;
+			}
+			if (codecId < codecsById.size()) {
+				return codecsById.get(codecId).read(in);
+			}
+			if (codecId != codecsById.size()) {
+				throw new IOException("invalid codec id: " + codecId);
+			}
+			String id = in.readUTF();
+			ValueCodec<?> codec = codecs.codecById(id);
+			if (codec == null) {
+				throw new IOException("unknown codec: " + id);
+			}
+			codecsById.add(codec);
+			return codec.read(in);
+		}
+
+		private ValidationError error() throws IOException {
+			int messageCount = in.readInt();
+			List<ErrorMessage> messages = new ArrayList<>(messageCount);
+			for (int i = 0; i < messageCount; i++) {
+				String key = in.readUTF();
+				Object[] args = new Object[in.readInt()];
+				for (int a = 0; a < args.length; a++) {
+					args[a] = value();
+				}
+				messages.add(ErrorMessage.of(key, args));
+			}
+			int referenceCount = in.readInt();
+			ImmutableSet.Builder<ValueSource<?>> references = ImmutableSet.builder();
+			for (int i = 0; i < referenceCount; i++) {
+				references.add((ValueSource<?>) plan.value(slot()));
+			}
+			return ValidationError.of(messages, references.build());
+		}
+	}
+
+	private static final class ChunkedOutputStream extends OutputStream {
+		private final WritableByteChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(4 + CHUNK_SIZE);
+
+		private ChunkedOutputStream(WritableByteChannel channel) {
+			this.channel = channel;
+			buffer.position(4);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (!buffer.hasRemaining()) {
+				writeChunk();
+			}
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			while (length > 0) {
+				if (!buffer.hasRemaining()) {
+					writeChunk();
+				}
+				int count = Math.min(length, buffer.remaining());
+				buffer.put(bytes, offset, count);
+				offset += count;
+				length -= count;
+			}
+		}
+
+		private void writeChunk() throws IOException {
+			int length = buffer.position() - 4;
+			if (length > 0) {
+				buffer.putInt(0, length);
+				buffer.flip();
+				writeFully(channel, buffer);
+				buffer.clear();
+				buffer.position(4);
+			}
+		}
+
+		private void finish() throws IOException {
+			writeChunk();
+			ByteBuffer end = ByteBuffer.allocate(4);
+			end.putInt(0).flip();
+			writeFully(channel, end);
+		}
+	}
+
+	// reads exactly the bytes of each chunk
+	private static final class ChunkedInputStream extends InputStream {
+		private final ReadableByteChannel channel;
+		private final ByteBuffer length = ByteBuffer.allocate(4);
+		private ByteBuffer chunk = ByteBuffer.allocate(0);
+		private boolean end;
+
+		private ChunkedInputStream(ReadableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return nextChunk() ? chunk.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int count) throws IOException {
+			if (count == 0) {
+				return 0;
+			}
+			if (!nextChunk()) {
+				return -1;
+			}
+			int ret = Math.min(count, chunk.remaining());
+			chunk.get(bytes, offset, ret);
+			return ret;
+		}
+
+		private boolean nextChunk() throws IOException {
+			while (!end && !chunk.hasRemaining()) {
+				length.clear();
+				readFully(channel, length);
+				int size = length.getInt(0);
+				if (size < 0 || size > CHUNK_SIZE) {
+					throw new IOException("invalid chunk size: " + size);
+				}
+				if (size == 0) {
+					end = true;
+				} else {
+					if (chunk.capacity() < size) {
+						chunk = ByteBuffer.allocate(CHUNK_SIZE);
+					}
+					chunk.clear();
+					chunk.limit(size);
+					readFully(channel, chunk);
+					chunk.flip();
+				}
+			}
+			return !end;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+
+// state of each slot, see SlotContext for possible states
+interface SlotAccess {
+	byte state(int slot);
+
+	@Nullable Object value(int slot);
+
+	ValidationError error(int slot);
+
+	void setValid(int slot, @Nullable Object value);
+
+	void setUnvalidated(int slot, @Nullable Object value);
+
+	void setInvalid(int slot, ValidationError error);
+
+	void setTimedOut(int slot);
+
+	// primitive access, implementations with unboxed storage override these
+
+	default boolean hasValue(int slot) {
+		return value(slot) != null;
+	}
+
+	default double doubleValue(int slot) {
+		return (Double) value(slot);
+	}
+
+	default long longValue(int slot) {
+		return (Long) value(slot);
+	}
+
+	default int intValue(int slot) {
+		return (Integer) value(slot);
+	}
+
+	default void setValidDouble(int slot, double value) {
+		setValid(slot, value);
+	}
+
+	default void setValidLong(int slot, long value) {
+		setValid(slot, value);
+	}
+
+	default void setValidInt(int slot, int value) {
+		setValid(slot, value);
+	}
+}
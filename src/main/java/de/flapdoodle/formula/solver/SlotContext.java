@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueContainer;
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+
+// mutable solve time state, one slot for each value of a SolverPlan
+final class SlotContext implements SlotAccess {
+	static final byte UNSET = 0;
+	static final byte UNVALIDATED = 1;
+	static final byte VALID = 2;
+	static final byte INVALID = 3;
+	static final byte TIMED_OUT = 4;
+
+	private final SolverPlan plan;
+	private final byte[] state;
+	private final Object[] values;
+	private final ValidationError[] errors;
+	// only if the plan has primitive slots
+	@Nullable
+	private final long[] primitives;
+	private volatile boolean truncated = false;
+
+	SlotContext(SolverPlan plan) {
+		this.plan = plan;
+		this.state = new byte[plan.size()];
+		this.values = new Object[plan.size()];
+		this.errors = new ValidationError[plan.size()];
+		this.primitives = plan.hasPrimitives() ? new long[plan.size()] : null;
+	}
+
+	SolverPlan plan() {
+		return plan;
+	}
+
+	@Override
+	public byte state(int slot) {
+		return state[slot];
+	}
+
+	@Override
+	public @Nullable Object value(int slot) {
+		Object value = values[slot];
+		return value == Primitives.PRIMITIVE ? Primitives.box(plan.kind(slot), primitives[slot]) : value;
+	}
+
+	@Override
+	public boolean hasValue(int slot) {
+		return values[slot] != null;
+	}
+
+	@Override
+	public double doubleValue(int slot) {
+		return values[slot] == Primitives.PRIMITIVE && plan.kind(slot) == Primitives.DOUBLE
+			? Primitives.doubleOf(primitives[slot])
+			: SlotAccess.super.doubleValue(slot);
+	}
+
+	@Override
+	public long longValue(int slot) {
+		return values[slot] == Primitives.PRIMITIVE && plan.kind(slot) == Primitives.LONG
+			? primitives[slot]
+			: SlotAccess.super.longValue(slot);
+	}
+
+	@Override
+	public int intValue(int slot) {
+		return values[slot] == Primitives.PRIMITIVE && plan.kind(slot) == Primitives.INT
+			? (int) primitives[slot]
+			: SlotAccess.super.intValue(slot);
+	}
+
+	@Override
+	public void setValidDouble(int slot, double value) {
+		setPrimitive(slot, Primitives.DOUBLE, Primitives.bits(value));
+	}
+
+	@Override
+	public void setValidLong(int slot, long value) {
+		setPrimitive(slot, Primitives.LONG, value);
+	}
+
+	@Override
+	public void setValidInt(int slot, int value) {
+		setPrimitive(slot, Primitives.INT, value);
+	}
+
+	private void setPrimitive(int slot, byte kind, long bits) {
+		if (plan.kind(slot) != kind) {
+			set(slot, VALID, Primitives.box(kind, bits), null);
+			return;
+		}
+		Preconditions.checkArgument(state[slot] == UNSET, "%s already set", plan.value(slot));
+		state[slot] = VALID;
+		values[slot] = Primitives.PRIMITIVE;
+		primitives[slot] = bits;
+	}
+
+	@Override
+	public ValidationError error(int slot) {
+		Preconditions.checkArgument(state[slot] == INVALID, "no validation error for %s", plan.value(slot));
+		return errors[slot];
+	}
+
+	@Override
+	public void setValid(int slot, @Nullable Object value) {
+		set(slot, VALID, value, null);
+	}
+
+	@Override
+	public void setUnvalidated(int slot, @Nullable Object value) {
+		set(slot, UNVALIDATED, value, null);
+	}
+
+	@Override
+	public void setInvalid(int slot, ValidationError error) {
+		set(slot, INVALID, null, error);
+	}
+
+	@Override
+	public void setTimedOut(int slot) {
+		set(slot, TIMED_OUT, null, null);
+	}
+
+	private void timeoutUnset() {
+		for (int slot = 0; slot < state.length; slot++) {
+			if (state[slot] == UNSET) {
+				state[slot] = TIMED_OUT;
+			}
+		}
+	}
+
+	void set(int slot, byte newState, @Nullable Object value, @Nullable ValidationError error) {
+		Preconditions.checkArgument(state[slot] == UNSET, "%s already set", plan.value(slot));
+		state[slot] = newState;
+		byte kind = plan.kind(slot);
+		if (value != null && kind != Primitives.OBJECT) {
+			values[slot] = Primitives.PRIMITIVE;
+			primitives[slot] = Primitives.unbox(kind, value);
+		} else {
+			values[slot] = value;
+		}
+		errors[slot] = error;
+	}
+
+	static SlotContext of(SolverPlan plan, Context context) {
+		SlotContext ret = new SlotContext(plan);
+		for (int slot = 0; slot < plan.size(); slot++) {
+			Value<?> value = plan.value(slot);
+			if (context.isValid(value)) {
+				ret.setValid(slot, context.getValidated(value));
+			} else if (context.isInvalid(value)) {
+				ret.setInvalid(slot, context.validationErrorMap().get(value));
+			} else if (context.unvalidated().keys().contains(value)) {
+				ret.setUnvalidated(slot, context.getUnvalidated(value));
+			}
+		}
+		return ret;
+	}
+
+	// false if the previous result has no state for this slot
+	boolean copyFrom(Result previous, int slot) {
+		if (previous instanceof SlotResult && ((SlotResult) previous).plan() == plan) {
+			SlotResult slotResult = (SlotResult) previous;
+			if (slotResult.state(slot) != UNSET && slotResult.state(slot) != TIMED_OUT) {
+				set(slot, slotResult.state(slot), slotResult.value(slot), slotResult.error(slot));
+				return true;
+			}
+			return false;
+		}
+
+		Value<?> value = plan.value(slot);
+		ValidationError error = previous.validationErrors().get(value);
+		if (error != null) {
+			setInvalid(slot, error);
+			return true;
+		}
+		if (previous.validatedValues().contains(value)) {
+			setValid(slot, previous.get(value));
+			return true;
+		}
+		return false;
+	}
+
+	void truncate() {
+		truncated = true;
+	}
+
+	// solving stopped early, if the deadline is reached all values not set are timed out
+	void stop(SolveLimits limits) {
+		truncate();
+		if (limits.expired()) {
+			timeoutUnset();
+		}
+	}
+
+	Result freeze() {
+		return new SlotResult(plan, state, values, primitives, errors, truncated);
+	}
+
+	// everything in this context which is not part of the base context is added
+	Context asContext(Context base) {
+		ValueContainer validated = base.validatedValues();
+		ValueContainer unvalidated = base.unvalidated();
+		ImmutableContext.Builder builder = ImmutableContext.builder().from(base);
+
+		for (int slot = 0; slot < state.length; slot++) {
+			Value<?> value = plan.value(slot);
+			switch (state[slot]) {
+				case VALID:
+					if (!base.isValid(value)) {
+						validated = add(validated, value, value(slot));
+					}
+					break;
+				case UNVALIDATED:
+					if (!base.unvalidated().contains(value)) {
+						unvalidated = add(unvalidated, value, value(slot));
+					}
+					break;
+				case INVALID:
+					if (!base.isInvalid(value)) {
+						builder.putValidationErrorMap(value, errors[slot]);
+					}
+					break;
+			}
+		}
+
+		return builder
+			.validatedValues(validated)
+			.unvalidated(unvalidated)
+			.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ValueContainer add(ValueContainer container, Value<?> id, @Nullable Object value) {
+		return container.add((Value<Object>) id, value);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.validation.ValidationError;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+final class SlotResult implements Result {
+	private final SolverPlan plan;
+	private final byte[] state;
+	private final Object[] values;
+	@Nullable
+	private final long[] primitives;
+	private final ValidationError[] errors;
+	private final boolean truncated;
+
+	private volatile Set<Value<?>> validatedValues;
+	private volatile Map<Value<?>, ValidationError> validationErrors;
+	private volatile Set<Value<?>> timedOut;
+
+	// arrays are owned by this instance
+	SlotResult(SolverPlan plan, byte[] state, Object[] values, @Nullable long[] primitives, ValidationError[] errors, boolean truncated) {
+		this.plan = plan;
+		this.state = state;
+		this.values = values;
+		this.primitives = primitives;
+		this.errors = errors;
+		this.truncated = truncated;
+	}
+
+	SolverPlan plan() {
+		return plan;
+	}
+
+	byte state(int slot) {
+		return state[slot];
+	}
+
+	@Nullable Object value(int slot) {
+		Object value = values[slot];
+		return value == Primitives.PRIMITIVE ? Primitives.box(plan.kind(slot), primitives[slot]) : value;
+	}
+
+	@Nullable ValidationError error(int slot) {
+		return errors[slot];
+	}
+
+	@Override
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	@Override
+	public Set<Value<?>> validatedValues() {
+		Set<Value<?>> current = validatedValues;
+		if (current == null) {
+			ImmutableSet.Builder<Value<?>> builder = ImmutableSet.builder();
+			for (int slot = 0; slot < state.length; slot++) {
+				if (state[slot] == SlotContext.VALID) {
+					builder.add(plan.value(slot));
+				}
+			}
+			current = builder.build();
+			validatedValues = current;
+		}
+		return current;
+	}
+
+	@Override
+	public Map<Value<?>, ValidationError> validationErrors() {
+		Map<Value<?>, ValidationError> current = validationErrors;
+		if (current == null) {
+			ImmutableMap.Builder<Value<?>, ValidationError> builder = ImmutableMap.builder();
+			for (int slot = 0; slot < state.length; slot++) {
+				if (state[slot] == SlotContext.INVALID) {
+					builder.put(plan.value(slot), errors[slot]);
+				}
+			}
+			current = builder.build();
+			validationErrors = current;
+		}
+		return current;
+	}
+
+	@Override
+	public Set<Value<?>> timedOut() {
+		Set<Value<?>> current = timedOut;
+		if (current == null) {
+			ImmutableSet.Builder<Value<?>> builder = ImmutableSet.builder();
+			for (int slot = 0; slot < state.length; slot++) {
+				if (state[slot] == SlotContext.TIMED_OUT) {
+					builder.add(plan.value(slot));
+				}
+			}
+			current = builder.build();
+			timedOut = current;
+		}
+		return current;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> @Nullable T get(Value<T> id) {
+		int slot = plan.slotOf(id);
+		if (slot != -1) {
+			if (state[slot] == SlotContext.INVALID) {
+				return null;
+			}
+			if (state[slot] == SlotContext.VALID) {
+				return (T) value(slot);
+			}
+		}
+		throw new NullPointerException("value " + id + " not set");
+	}
+
+	@Override
+	public double getDouble(Value<Double> id) {
+		int slot = primitiveSlot(id, Primitives.DOUBLE);
+		return slot != -1 ? Primitives.doubleOf(primitives[slot]) : Result.super.getDouble(id);
+	}
+
+	@Override
+	public long getLong(Value<Long> id) {
+		int slot = primitiveSlot(id, Primitives.LONG);
+		return slot != -1 ? primitives[slot] : Result.super.getLong(id);
+	}
+
+	@Override
+	public int getInt(Value<Integer> id) {
+		int slot = primitiveSlot(id, Primitives.INT);
+		return slot != -1 ? (int) primitives[slot] : Result.super.getInt(id);
+	}
+
+	// -1 if not a valid value stored as primitive
+	private int primitiveSlot(Value<?> id, byte kind) {
+		int slot = plan.slotOf(id);
+		return slot != -1 && state[slot] == SlotContext.VALID && values[slot] == Primitives.PRIMITIVE && plan.kind(slot) == kind
+			? slot
+			: -1;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// solving stops early if one of these limits is reached
+final class SolveLimits {
+	private final int errorBudget;
+	private final boolean hasDeadline;
+	private final long deadline;
+	private final long calculationTimeout;
+	@Nullable
+	private final CancellationToken cancellationToken;
+
+	private final AtomicInteger errors = new AtomicInteger();
+	private volatile boolean reached = false;
+	private volatile boolean expired = false;
+	private volatile boolean anyTimedOut = false;
+
+	SolveLimits(SolveOptions options) {
+		this.errorBudget = options.errorBudget().orElse(Integer.MAX_VALUE);
+		this.hasDeadline = options.timeout().isPresent();
+		this.deadline = hasDeadline ? System.nanoTime() + options.timeout().get().toNanos() : 0L;
+		this.calculationTimeout = options.calculationTimeout().map(it -> it.toNanos()).orElse(Long.MAX_VALUE);
+		this.cancellationToken = options.cancellationToken().orElse(null);
+	}
+
+	boolean reached() {
+		return reached;
+	}
+
+	// deadline reached or cancelled
+	boolean expired() {
+		return expired;
+	}
+
+	boolean hasTimeouts() {
+		return hasDeadline || cancellationToken != null || calculationTimeout != Long.MAX_VALUE;
+	}
+
+	boolean anyTimedOut() {
+		return anyTimedOut;
+	}
+
+	void timedOut() {
+		anyTimedOut = true;
+	}
+
+	// called after each evaluated slot, true if solving should stop
+	boolean check(SlotAccess context, int slot) {
+		if (context.state(slot) == SlotContext.INVALID && errors.incrementAndGet() >= errorBudget) {
+			reached = true;
+		}
+		if (isExpired()) {
+			expired = true;
+			reached = true;
+		}
+		return reached;
+	}
+
+	void checkpoint(long calculationStarted) {
+		if (isExpired()) {
+			throw new SolveTimeoutException("solve deadline reached or cancelled");
+		}
+		if (calculationTimeout != Long.MAX_VALUE && System.nanoTime() - calculationStarted > calculationTimeout) {
+			throw new SolveTimeoutException("calculation timeout reached");
+		}
+	}
+
+	private boolean isExpired() {
+		return (hasDeadline && System.nanoTime() - deadline >= 0)
+			|| (cancellationToken != null && cancellationToken.isCancelled());
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.Executor;
+
+@Value.Immutable
+public abstract class SolveOptions {
+	// if set, independent values are calculated in parallel
+	public abstract Optional<Executor> executor();
+
+	// if set together with an executor, each independent part of the graph is solved as one task
+	@Value.Default
+	public boolean byComponents() {
+		return false;
+	}
+
+	// if set, results of pure calculations are taken from this cache
+	public abstract Optional<MemoCache> memoCache();
+
+	// if set, solving stops after this number of invalid values and the result is truncated
+	public abstract OptionalInt errorBudget();
+
+	// if set, solving stops after this time, all values not calculated until then are timed out
+	public abstract Optional<Duration> timeout();
+
+	// checked by Cancellation.checkpoint() while a calculation is running
+	public abstract Optional<Duration> calculationTimeout();
+
+	public abstract Optional<CancellationToken> cancellationToken();
+
+	// if set, the parallel solver starts values on the most expensive path first
+	public abstract Optional<CostModel> costModel();
+
+	@Value.Check
+	protected void check() {
+		Preconditions.checkArgument(!errorBudget().isPresent() || errorBudget().getAsInt() > 0, "errorBudget must be > 0: %s", errorBudget());
+		Preconditions.checkArgument(!timeout().isPresent() || !timeout().get().isNegative(), "timeout is negative: %s", timeout());
+		Preconditions.checkArgument(!calculationTimeout().isPresent() || !calculationTimeout().get().isNegative(), "calculationTimeout is negative: %s", calculationTimeout());
+	}
+
+	public static SolveOptions defaults() {
+		return builder().build();
+	}
+
+	public static SolveOptions parallel(Executor executor) {
+		return builder().executor(executor).build();
+	}
+
+	public static SolveOptions components(Executor executor) {
+		return builder().executor(executor).byComponents(true).build();
+	}
+
+	// each ready value is calculated on its own virtual thread, in the common fork join pool before java 21
+	public static SolveOptions virtualThreads() {
+		return parallel(VirtualThreads.executor());
+	}
+
+	public static SolveOptions memoized(MemoCache memoCache) {
+		return builder().memoCache(memoCache).build();
+	}
+
+	// stop at the first invalid value
+	public static SolveOptions failFast() {
+		return errorBudget(1);
+	}
+
+	public static SolveOptions errorBudget(int errorBudget) {
+		return builder().errorBudget(errorBudget).build();
+	}
+
+	public static SolveOptions timeout(Duration timeout) {
+		return builder().timeout(timeout).build();
+	}
+
+	public static SolveOptions cancelable(CancellationToken cancellationToken) {
+		return builder().cancellationToken(cancellationToken).build();
+	}
+
+	public static ImmutableSolveOptions.Builder builder() {
+		return ImmutableSolveOptions.builder();
+	}
+}
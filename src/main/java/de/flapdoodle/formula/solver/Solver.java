@@ -18,18 +18,13 @@ package de.flapdoodle.formula.solver;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
-import de.flapdoodle.formula.Unvalidated;
 import de.flapdoodle.formula.Value;
-import de.flapdoodle.formula.ValueSource;
-import de.flapdoodle.formula.calculate.*;
-import de.flapdoodle.formula.validation.*;
-import de.flapdoodle.graph.Graphs;
-import de.flapdoodle.graph.VerticesAndEdges;
-import org.jgrapht.graph.DefaultEdge;
+import de.flapdoodle.formula.calculate.BatchValueLookup;
+import de.flapdoodle.formula.calculate.HasSetOfKnownValues;
+import de.flapdoodle.formula.calculate.ValueLookup;
 
-import javax.annotation.Nullable;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class Solver {
 
@@ -38,128 +33,141 @@ public abstract class Solver {
 	}
 
 	public static Result solve(ValueGraph valueGraph, ValueLookup lookup) {
-		return solve(Context.empty(), valueGraph, lookup).asResult();
+		return solve(valueGraph.plan(), lookup);
 	}
 
-	static Context solve(Context context, ValueGraph valueGraph, ValueLookup lookup) {
-		Collection<VerticesAndEdges<Value<?>, DefaultEdge>> roots = Graphs.rootsOf(valueGraph.graph());
-		if (lookup instanceof HasSetOfKnownValues) {
-			Set<Value<?>> providedValuesSet = ((HasSetOfKnownValues) lookup).keySet();
-
-			Set<Value<?>> calculationDestinations = roots.stream()
-				.flatMap(it -> it.vertices().stream())
-				.map(valueGraph::calculationOrNull)
-				.filter(Objects::nonNull)
-				.map(Calculation::destination)
-				.collect(Collectors.toSet());
+	public static Result solve(ValueGraph valueGraph, ValueLookup lookup, SolveOptions options) {
+		return solve(valueGraph.plan(), lookup, options);
+	}
 
-			Set<Value<?>> shadowedValuesFromLookup = Sets.intersection(providedValuesSet, calculationDestinations);
+	public static Result solve(SolverPlan plan, ValueLookup lookup) {
+		return solve(plan, lookup, SolveOptions.defaults());
+	}
 
-			Preconditions.checkArgument(shadowedValuesFromLookup.isEmpty(),"value lookup values are shadowed by calculations: %s", shadowedValuesFromLookup);
-		}
+	public static Result solve(SolverPlan plan, ValueLookup lookup, SolveOptions options) {
+		return solve(new SlotContext(plan), lookup, options).freeze();
+	}
 
-		for (VerticesAndEdges<Value<?>, DefaultEdge> it : roots) {
-			Preconditions.checkArgument(it.loops().isEmpty(), "loops found: %s", it.loops());
+	public static Result solve(ValueGraph valueGraph, ValueLookup lookup, Set<? extends Value<?>> targets) {
+		return solve(valueGraph.plan(), lookup, targets);
+	}
 
-			for (Value<?> node : it.vertices()) {
-				context = process(lookup, valueGraph, node, context);
+	// only targets and values they depend on are evaluated
+	public static Result solve(SolverPlan plan, ValueLookup lookup, Set<? extends Value<?>> targets) {
+		checkShadowedValues(plan, lookup);
+
+		boolean[] needed = plan.upstreamOf(targets);
+		SlotContext context = new SlotContext(plan);
+		SolveOptions options = SolveOptions.defaults();
+		SolveLimits limits = new SolveLimits(options);
+		for (SolverPlan.Step<?> step : plan.steps()) {
+			if (needed[step.slot]) {
+				StepEvaluator.evaluate(step, context, lookup, options, limits);
 			}
 		}
+		return context.freeze();
+	}
 
-		return context;
+	public static BatchResult solveBatch(ValueGraph valueGraph, BatchValueLookup lookup) {
+		return solveBatch(valueGraph.plan(), lookup, SolveOptions.defaults());
 	}
 
-	private static Context process(
-		ValueLookup lookup,
-		ValueGraph valueGraph,
-		Value<?> node,
-		Context context
-	) {
-		if (node instanceof Unvalidated) {
-			return processUnvalidated(lookup, (Unvalidated<?>) node, context);
+	public static BatchResult solveBatch(ValueGraph valueGraph, BatchValueLookup lookup, SolveOptions options) {
+		return solveBatch(valueGraph.plan(), lookup, options);
+	}
+
+	// step by step over all rows, executor, error budget and timeout are not used (calculation timeouts are)
+	public static BatchResult solveBatch(SolverPlan plan, BatchValueLookup lookup, SolveOptions options) {
+		checkShadowedValues(plan, lookup);
+
+		BatchContext context = new BatchContext(plan, lookup.size());
+		BatchContext.Row row = context.new Row(lookup);
+		SolveLimits limits = new SolveLimits(options);
+		for (SolverPlan.Step<?> step : plan.steps()) {
+			// the row is a cursor, so the sources of a step can be used for each row
+			StepEvaluator.SourceLookup sources = new StepEvaluator.SourceLookup(step, row, row);
+			for (int i = 0; i < context.size(); i++) {
+				row.at(i);
+				StepEvaluator.evaluate(step, row, row, options, limits, sources);
+			}
 		}
-		return processValue(lookup, valueGraph, node, context);
+		return context.freeze();
 	}
 
-	private static <T> Context processValue(ValueLookup lookup, ValueGraph valueGraph, Value<T> destination, Context context) {
-		Calculation<T> calculation = valueGraph.calculationOrNull(destination);
+	public static CompletableFuture<Result> solveAsync(ValueGraph valueGraph, ValueLookup lookup) {
+		return solveAsync(valueGraph.plan(), lookup, SolveOptions.defaults());
+	}
 
-		T calculated;
-		Context withCalculationSources;
+	public static CompletableFuture<Result> solveAsync(SolverPlan plan, ValueLookup lookup) {
+		return solveAsync(plan, lookup, SolveOptions.defaults());
+	}
 
-		if (calculation != null) {
-			List<MappedValue<?>> entries = calculation.sources().stream()
-				.map(source -> mappedValue(context, lookup, source))
-				.collect(Collectors.toList());
+	public static CompletableFuture<Result> solveAsync(SolverPlan plan, ValueLookup lookup, SolveOptions options) {
+		checkShadowedValues(plan, lookup);
+		return AsyncSolver.solve(new SlotContext(plan), lookup, options)
+			.thenApply(SlotContext::freeze);
+	}
 
-			StrictValueLookup calculationLookup = StrictValueLookup.of(entries);
-			calculated = calculation.calculate(calculationLookup);
-			withCalculationSources = context.addIfNotExist(entries);
-		} else {
-			calculated = value(context, lookup, destination);
-			withCalculationSources = context;
-		}
+	public static Result resolve(ValueGraph valueGraph, Result previousResult, Set<? extends Value<?>> changedValues, ValueLookup lookup) {
+		return resolve(valueGraph.plan(), previousResult, changedValues, lookup);
+	}
 
-		Context withValidation;
-		Validation<T> validation = valueGraph.validationOrNull(destination);
-		if (validation != null) {
-			List<ValidatedValue<?>> sources = validation.sources().stream()
-				.map(source -> validatedValue(withCalculationSources, source))
-				.collect(Collectors.toList());
-
-			StrictValidatedValueLookup validationLookup = StrictValidatedValueLookup.with(sources);
-			List<ErrorMessage> errorMessages = validate(validationLookup, validation, calculated);
-
-			Context withValidationSources = withCalculationSources.addIfNotExist(sources.stream()
-				.filter(ValidatedValue::isValid)
-				.map(Solver::asMappedValue)
-				.collect(Collectors.toList()));
-
-			if (errorMessages.isEmpty()) {
-				withValidation = withValidationSources.add(destination, calculated);
-			} else {
-				withValidation = withValidationSources.addInvalid(destination, ValidationError.of(errorMessages,
-					sources.stream().filter(it -> !it.isValid()).map(ValidatedValue::source).collect(
-						Collectors.toSet())));
+	// only changed values and values depending on them are evaluated again
+	public static Result resolve(SolverPlan plan, Result previousResult, Set<? extends Value<?>> changedValues, ValueLookup lookup) {
+		checkShadowedValues(plan, lookup);
+
+		boolean[] affected = plan.downstreamOf(changedValues);
+		SlotContext context = new SlotContext(plan);
+		SolveOptions options = SolveOptions.defaults();
+		SolveLimits limits = new SolveLimits(options);
+		for (SolverPlan.Step<?> step : plan.steps()) {
+			if (affected[step.slot] || !context.copyFrom(previousResult, step.slot)) {
+				StepEvaluator.evaluate(step, context, lookup, options, limits);
 			}
-		} else {
-			withValidation = withCalculationSources.add(destination, calculated);
 		}
-
-		return withValidation;
+		return context.freeze();
 	}
 
-	private static <T> MappedValue<T> asMappedValue(ValidatedValue<T> validated) {
-		Preconditions.checkArgument(validated.isValid(),"%s is not valid", validated.source());
-		return MappedValue.of(validated.source(), validated.value());
+	static Context solve(Context context, ValueGraph valueGraph, ValueLookup lookup) {
+		return solve(context, valueGraph.plan(), lookup);
 	}
 
-	private static <T> MappedValue<T> mappedValue(Context context, ValueLookup lookup, Value<T> id) {
-		return MappedValue.of(id, value(context, lookup, id));
+	static Context solve(Context context, SolverPlan plan, ValueLookup lookup) {
+		return solve(SlotContext.of(plan, context), lookup, SolveOptions.defaults()).asContext(context);
 	}
 
-	private static <T> @Nullable T value(Context context, ValueLookup lookup, Value<T> id) {
-		return context.isValid(id)
-			? context.getValidated(id)
-			: context.isInvalid(id)
-			? null
-			: lookup.get(id);
-	}
+	private static SlotContext solve(SlotContext context, ValueLookup lookup, SolveOptions options) {
+		SolverPlan plan = context.plan();
+		checkShadowedValues(plan, lookup);
+
+		if (options.executor().isPresent()) {
+			return options.byComponents()
+				? ComponentSolver.solve(context, lookup, options.executor().get(), options)
+				: ParallelSolver.solve(context, lookup, options.executor().get(), options);
+		}
 
-	private static <T> ValidatedValue<T> validatedValue(Context context, ValueSource<T> id) {
-		if (id instanceof Unvalidated) {
-			return ValidatedValue.of(id, context.getUnvalidated(id));
+		SolveLimits limits = new SolveLimits(options);
+		for (SolverPlan.Step<?> step : plan.steps()) {
+			StepEvaluator.evaluate(step, context, lookup, options, limits);
+			if (limits.check(context, step.slot)) {
+				context.stop(limits);
+				break;
+			}
 		}
-		return context.isValid(id)
-			? ValidatedValue.of(id, context.getValidated(id))
-			: ValidatedValue.of(id, context.validationError(id));
+
+		return context;
 	}
 
-	private static <T> List<ErrorMessage> validate(ValidatedValueLookup valueLookup, Validation<T> validation, T calculated) {
-		return validation.validate(Optional.ofNullable(calculated), valueLookup);
+	static void checkShadowedValues(SolverPlan plan, Object lookup) {
+		checkShadowedValues(plan.calculationDestinations(), lookup);
 	}
 
-	private static <T> Context processUnvalidated(ValueLookup lookup, Unvalidated<T> node, Context context) {
-		return context.addUnvalidated(node, lookup.get(node.wrapped()));
+	static void checkShadowedValues(Set<Value<?>> calculationDestinations, Object lookup) {
+		if (lookup instanceof HasSetOfKnownValues) {
+			Set<Value<?>> providedValuesSet = ((HasSetOfKnownValues) lookup).keySet();
+			Set<Value<?>> shadowedValuesFromLookup = Sets.intersection(providedValuesSet, calculationDestinations);
+
+			Preconditions.checkArgument(shadowedValuesFromLookup.isEmpty(),"value lookup values are shadowed by calculations: %s", shadowedValuesFromLookup);
+		}
 	}
 }
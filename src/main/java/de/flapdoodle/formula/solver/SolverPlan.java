@@ -0,0 +1,396 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Unvalidated;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.Calculation;
+import de.flapdoodle.formula.calculate.calculations.Map1;
+import de.flapdoodle.formula.validation.Validation;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public final class SolverPlan {
+	private static final int[] NO_SLOTS = new int[0];
+
+	private final ValueGraph valueGraph;
+	private final List<Step<?>> steps;
+	private final Map<Value<?>, Integer> slots;
+	private final Set<Value<?>> calculationDestinations;
+	private final int[] predecessorCount;
+	// successors of slot are successorSlots[successorOffsets[slot] .. successorOffsets[slot + 1]]
+	private final int[] successorOffsets;
+	private final int[] successorSlots;
+	private final boolean hasPrimitives;
+	private volatile int[][] components;
+
+	private SolverPlan(ValueGraph valueGraph, List<Step<?>> steps, Map<Value<?>, Integer> slots, Set<Value<?>> calculationDestinations) {
+		this.valueGraph = valueGraph;
+		this.steps = steps;
+		this.slots = slots;
+		this.calculationDestinations = calculationDestinations;
+		this.hasPrimitives = steps.stream().anyMatch(step -> step.kind != Primitives.OBJECT);
+		this.predecessorCount = new int[steps.size()];
+		this.successorOffsets = new int[steps.size() + 1];
+
+		for (Step<?> step : steps) {
+			predecessorCount[step.slot] = step.predecessors.length;
+			for (int predecessor : step.predecessors) {
+				successorOffsets[predecessor + 1]++;
+			}
+		}
+		for (int slot = 0; slot < steps.size(); slot++) {
+			successorOffsets[slot + 1] += successorOffsets[slot];
+		}
+		this.successorSlots = new int[successorOffsets[steps.size()]];
+		int[] next = Arrays.copyOf(successorOffsets, steps.size());
+		for (Step<?> step : steps) {
+			for (int predecessor : step.predecessors) {
+				successorSlots[next[predecessor]++] = step.slot;
+			}
+		}
+	}
+
+	public ValueGraph valueGraph() {
+		return valueGraph;
+	}
+
+	public int size() {
+		return steps.size();
+	}
+
+	List<Step<?>> steps() {
+		return steps;
+	}
+
+	Step<?> step(int slot) {
+		return steps.get(slot);
+	}
+
+	Value<?> value(int slot) {
+		return steps.get(slot).destination;
+	}
+
+	byte kind(int slot) {
+		return steps.get(slot).kind;
+	}
+
+	boolean hasPrimitives() {
+		return hasPrimitives;
+	}
+
+	// number of distinct calculation and validation sources, plus a shared calculation
+	int[] predecessorCount() {
+		return predecessorCount;
+	}
+
+	// first index of the successors of this slot, the successors of slot + 1 start where they end
+	int successorOffset(int slot) {
+		return successorOffsets[slot];
+	}
+
+	int successorAt(int index) {
+		return successorSlots[index];
+	}
+
+	// slots of independent parts of the graph, each in evaluation order
+	int[][] components() {
+		int[][] current = components;
+		if (current == null) {
+			current = connectedComponents();
+			components = current;
+		}
+		return current;
+	}
+
+	private int[][] connectedComponents() {
+		int[] parent = new int[steps.size()];
+		for (int slot = 0; slot < parent.length; slot++) {
+			parent[slot] = slot;
+		}
+		for (Step<?> step : steps) {
+			for (int predecessor : step.predecessors) {
+				int a = root(parent, step.slot);
+				int b = root(parent, predecessor);
+				if (a != b) {
+					parent[Math.max(a, b)] = Math.min(a, b);
+				}
+			}
+		}
+
+		Map<Integer, List<Integer>> slotsByRoot = new LinkedHashMap<>();
+		for (int slot = 0; slot < parent.length; slot++) {
+			slotsByRoot.computeIfAbsent(root(parent, slot), key -> new ArrayList<>()).add(slot);
+		}
+		return slotsByRoot.values().stream()
+			.map(slots -> slots.stream().mapToInt(Integer::intValue).toArray())
+			.toArray(int[][]::new);
+	}
+
+	private static int root(int[] parent, int slot) {
+		int current = slot;
+		while (parent[current] != current) {
+			parent[current] = parent[parent[current]];
+			current = parent[current];
+		}
+		return current;
+	}
+
+	// changed values and everything depending on them, slots are in topological order
+	boolean[] downstreamOf(Collection<? extends Value<?>> changedValues) {
+		boolean[] ret = new boolean[steps.size()];
+		for (Value<?> value : changedValues) {
+			markIfPresent(ret, value);
+			if (value instanceof ValueSource) {
+				markIfPresent(ret, Unvalidated.wrap((ValueSource<?>) value));
+			}
+		}
+		for (int slot = 0; slot < ret.length; slot++) {
+			if (ret[slot]) {
+				for (int i = successorOffsets[slot]; i < successorOffsets[slot + 1]; i++) {
+					ret[successorSlots[i]] = true;
+				}
+			}
+		}
+		return ret;
+	}
+
+	// targets and everything they depend on
+	boolean[] upstreamOf(Collection<? extends Value<?>> targets) {
+		boolean[] ret = new boolean[steps.size()];
+		for (Value<?> value : targets) {
+			int slot = slotOf(value);
+			Preconditions.checkArgument(slot != -1, "unknown value: %s", value);
+			ret[slot] = true;
+		}
+		for (int slot = ret.length - 1; slot >= 0; slot--) {
+			if (ret[slot]) {
+				for (int predecessor : steps.get(slot).predecessors) {
+					ret[predecessor] = true;
+				}
+			}
+		}
+		return ret;
+	}
+
+	private void markIfPresent(boolean[] marks, Value<?> value) {
+		int slot = slotOf(value);
+		if (slot != -1) {
+			marks[slot] = true;
+		}
+	}
+
+	// -1 if this value is not part of the plan
+	int slotOf(Value<?> value) {
+		Integer slot = slots.get(value);
+		return slot != null ? slot : -1;
+	}
+
+	Set<Value<?>> calculationDestinations() {
+		return calculationDestinations;
+	}
+
+	// slots are assigned in evaluation order, everything else is resolved by dense id
+	public static SolverPlan of(ValueGraph valueGraph) {
+		return of(valueGraph, false);
+	}
+
+	// identity copies become aliases, chains of single consumer Map1s are evaluated with their first step,
+	// identical calculations are evaluated once,
+	// every value is still part of the result
+	public static SolverPlan optimized(ValueGraph valueGraph) {
+		return of(valueGraph, true);
+	}
+
+	private static SolverPlan of(ValueGraph valueGraph, boolean optimize) {
+		DenseGraph denseGraph = valueGraph.denseGraph();
+		int[] slotOfId = new int[denseGraph.size()];
+		int[] idOfSlot = new int[denseGraph.size()];
+		ImmutableMap.Builder<Value<?>, Integer> slots = ImmutableMap.builder();
+		int slot = 0;
+		for (int id : valueGraph.evaluationOrder()) {
+			slotOfId[id] = slot;
+			idOfSlot[slot] = id;
+			slots.put(denseGraph.value(id), slot++);
+		}
+
+		int[] fusedInto = new int[idOfSlot.length];
+		Arrays.fill(fusedInto, -1);
+		int[][] chains = new int[idOfSlot.length][];
+		Arrays.fill(chains, NO_SLOTS);
+		if (optimize) {
+			for (slot = 0; slot < idOfSlot.length; slot++) {
+				if (fusedInto[slot] == -1) {
+					chains[slot] = chainOf(denseGraph, slot, idOfSlot, slotOfId, fusedInto);
+				}
+			}
+		}
+
+		int[] sharedWith = new int[idOfSlot.length];
+		Arrays.fill(sharedWith, -1);
+		if (optimize) {
+			sharedCalculations(denseGraph, idOfSlot, sharedWith);
+		}
+
+		ImmutableList.Builder<Step<?>> steps = ImmutableList.builder();
+		ImmutableSet.Builder<Value<?>> calculationDestinations = ImmutableSet.builder();
+
+		for (slot = 0; slot < idOfSlot.length; slot++) {
+			int id = idOfSlot[slot];
+			@SuppressWarnings("unchecked")
+			Calculation<Object> calculation = (Calculation<Object>) denseGraph.calculation(id);
+			@SuppressWarnings("unchecked")
+			Validation<Object> validation = (Validation<Object>) denseGraph.validation(id);
+			boolean alias = optimize && validation == null && calculation instanceof Map1 && ((Map1<?, ?>) calculation).isIdentity();
+			@SuppressWarnings("unchecked")
+			Map1<Object, Object>[] chainCalculations = Arrays.stream(chains[slot])
+				.mapToObj(it -> (Map1<Object, Object>) denseGraph.calculation(idOfSlot[it]))
+				.toArray(Map1[]::new);
+
+			@SuppressWarnings("unchecked")
+			Step<?> step = new Step<>(slot, (Value<Object>) denseGraph.value(id), calculation, validation,
+				slotsOf(denseGraph.calculationSources(id), slotOfId), slotsOf(denseGraph.validationSources(id), slotOfId),
+				alias, fusedInto[slot], chains[slot], chainCalculations, sharedWith[slot]);
+			if (step.calculation != null) {
+				calculationDestinations.add(step.destination);
+			}
+			steps.add(step);
+		}
+
+		return new SolverPlan(valueGraph, steps.build(), slots.build(), calculationDestinations.build());
+	}
+
+	// the first calculation with a result key and without validation is evaluated, later ones with the same key take its value
+	private static void sharedCalculations(DenseGraph denseGraph, int[] idOfSlot, int[] sharedWith) {
+		Map<Object, Integer> firstSlotOfKey = new HashMap<>();
+		for (int slot = 0; slot < idOfSlot.length; slot++) {
+			Calculation<?> calculation = denseGraph.calculation(idOfSlot[slot]);
+			Object key = calculation != null ? calculation.resultKey() : null;
+			if (key != null) {
+				Integer first = firstSlotOfKey.get(key);
+				if (first != null) {
+					sharedWith[slot] = first;
+				} else if (denseGraph.validation(idOfSlot[slot]) == null) {
+					firstSlotOfKey.put(key, slot);
+				}
+			}
+		}
+	}
+
+	// following values as long as each is the only consumer of the one before and a plain Map1
+	private static int[] chainOf(DenseGraph denseGraph, int head, int[] idOfSlot, int[] slotOfId, int[] fusedInto) {
+		List<Integer> chain = new ArrayList<>();
+		int id = idOfSlot[head];
+		while (denseGraph.successorOffset(id + 1) - denseGraph.successorOffset(id) == 1) {
+			int next = denseGraph.successorAt(denseGraph.successorOffset(id));
+			if (!(denseGraph.calculation(next) instanceof Map1) || denseGraph.validation(next) != null) {
+				break;
+			}
+			fusedInto[slotOfId[next]] = head;
+			chain.add(slotOfId[next]);
+			id = next;
+		}
+		return chain.isEmpty()
+			? NO_SLOTS
+			: chain.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static ValueSource<?>[] sourcesOf(Collection<? extends ValueSource<?>> sources) {
+		return sources.toArray(new ValueSource<?>[0]);
+	}
+
+	private static int[] slotsOf(int[] ids, int[] slotOfId) {
+		int[] ret = new int[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			ret[i] = slotOfId[ids[i]];
+		}
+		return ret;
+	}
+
+	static final class Step<T> {
+		final int slot;
+		final Value<T> destination;
+		@Nullable
+		final Calculation<T> calculation;
+		@Nullable
+		final Validation<T> validation;
+
+		final ValueSource<?>[] calculationSources;
+		final int[] calculationSourceSlots;
+		final ValueSource<?>[] validationSources;
+		final int[] validationSourceSlots;
+		final int[] predecessors;
+		final byte kind;
+		// copy of the only calculation source
+		final boolean alias;
+		// evaluated together with this slot, -1 if not part of a chain
+		final int fusedInto;
+		// slots evaluated right after this one, each by applying its calculation to the value before
+		final int[] chainSlots;
+		final Map1<Object, Object>[] chainCalculations;
+		// slot with the same calculation, evaluated before this one, -1 if none
+		final int sharedWith;
+
+		private Step(
+			int slot,
+			Value<T> destination,
+			@Nullable Calculation<T> calculation,
+			@Nullable Validation<T> validation,
+			int[] calculationSourceSlots,
+			int[] validationSourceSlots,
+			boolean alias,
+			int fusedInto,
+			int[] chainSlots,
+			Map1<Object, Object>[] chainCalculations,
+			int sharedWith
+		) {
+			this.slot = slot;
+			this.destination = destination;
+			this.calculation = calculation;
+			this.validation = validation;
+			this.calculationSources = calculation != null ? sourcesOf(calculation.sources()) : new ValueSource<?>[0];
+			this.calculationSourceSlots = calculationSourceSlots;
+			this.validationSources = validation != null ? sourcesOf(validation.sources()) : new ValueSource<?>[0];
+			this.validationSourceSlots = validationSourceSlots;
+			this.predecessors = IntStream.concat(
+					IntStream.concat(Arrays.stream(calculationSourceSlots), Arrays.stream(validationSourceSlots)),
+					sharedWith != -1 ? IntStream.of(sharedWith) : IntStream.empty())
+				.distinct()
+				.toArray();
+			this.kind = Primitives.kindOf(destination);
+			this.alias = alias;
+			this.fusedInto = fusedInto;
+			this.chainSlots = chainSlots;
+			this.chainCalculations = chainCalculations;
+			this.sharedWith = sharedWith;
+		}
+	}
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.collect.ImmutableSet;
+import de.flapdoodle.formula.Unvalidated;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueSource;
+import de.flapdoodle.formula.calculate.AsyncCalculation;
+import de.flapdoodle.formula.calculate.Calculation;
+import de.flapdoodle.formula.calculate.DoubleCalculation;
+import de.flapdoodle.formula.calculate.IntCalculation;
+import de.flapdoodle.formula.calculate.LongCalculation;
+import de.flapdoodle.formula.calculate.PrimitiveValueLookup;
+import de.flapdoodle.formula.calculate.ValueLookup;
+import de.flapdoodle.formula.validation.*;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+abstract class StepEvaluator {
+	private StepEvaluator() {
+		// no instance
+	}
+
+	static void evaluate(SolverPlan.Step<?> step, SlotAccess context, ValueLookup lookup, SolveOptions options, SolveLimits limits) {
+		evaluate(step, context, lookup, options, limits, null);
+	}
+
+	// sources can be reused for each evaluation of the same step, if context and lookup are the same cursor
+	static void evaluate(SolverPlan.Step<?> step, SlotAccess context, ValueLookup lookup, SolveOptions options, SolveLimits limits,
+		@Nullable SourceLookup sources) {
+		if (step.fusedInto != -1 && fuseChains(options, limits)) {
+			// already evaluated with the first step of its chain
+			return;
+		}
+
+		if (step.destination instanceof Unvalidated) {
+			context.setUnvalidated(step.slot, lookup.get(((Unvalidated<?>) step.destination).wrapped()));
+		} else if (options.costModel().filter(CostModel::isLearning).isPresent()) {
+			long started = System.nanoTime();
+			evaluateValue(step, context, lookup, options, limits, sources);
+			options.costModel().get().record(step.destination, System.nanoTime() - started);
+		} else {
+			evaluateValue(step, context, lookup, options, limits, sources);
+			if (step.chainSlots.length != 0 && fuseChains(options, limits)) {
+				evaluateChain(step, context, lookup);
+			}
+		}
+	}
+
+	// chains are evaluated step by step if each calculation is measured, cached or may time out
+	private static boolean fuseChains(SolveOptions options, SolveLimits limits) {
+		return !limits.hasTimeouts()
+			&& !options.memoCache().isPresent()
+			&& !options.costModel().filter(CostModel::isLearning).isPresent();
+	}
+
+	private static void evaluateChain(SolverPlan.Step<?> step, SlotAccess context, ValueLookup lookup) {
+		Object value = sourceValue(context, lookup, step.slot, step.destination);
+		for (int i = 0; i < step.chainSlots.length; i++) {
+			value = step.chainCalculations[i].apply(value);
+			context.setValid(step.chainSlots[i], value);
+		}
+	}
+
+	private static <T> void evaluateValue(SolverPlan.Step<T> step, SlotAccess context, ValueLookup lookup, SolveOptions options, SolveLimits limits,
+		@Nullable SourceLookup sources) {
+		if (limits.anyTimedOut() && anySourceTimedOut(step, context)) {
+			context.setTimedOut(step.slot);
+			return;
+		}
+
+		if (step.alias) {
+			context.setValid(step.slot, sourceValue(context, lookup, step.calculationSourceSlots[0], step.calculationSources[0]));
+			return;
+		}
+
+		if (step.sharedWith != -1 && context.state(step.sharedWith) == SlotContext.VALID) {
+			@SuppressWarnings("unchecked")
+			T shared = (T) context.value(step.sharedWith);
+			complete(step, context, shared);
+			return;
+		}
+
+		Calculation<T> calculation = step.calculation;
+		if (calculation != null && step.kind != Primitives.OBJECT && step.validation == null && !limits.hasTimeouts()
+			&& !(calculation.isPure() && options.memoCache().isPresent())
+			&& evaluatePrimitive(step, calculation, context, sourceLookup(step, context, lookup, sources))) {
+			return;
+		}
+
+		T calculated;
+		try {
+			calculated = calculation != null
+				? calculate(step, calculation, sourceLookup(step, context, lookup, sources), options, limits)
+				: lookup.get(step.destination);
+		}
+		catch (SolveTimeoutException ex) {
+			limits.timedOut();
+			context.setTimedOut(step.slot);
+			return;
+		}
+
+		complete(step, context, calculated);
+	}
+
+	private static SourceLookup sourceLookup(SolverPlan.Step<?> step, SlotAccess context, ValueLookup lookup, @Nullable SourceLookup sources) {
+		return sources != null ? sources.reset() : new SourceLookup(step, context, lookup);
+	}
+
+	// false if this calculation does not match the primitive kind of its destination
+	private static boolean evaluatePrimitive(SolverPlan.Step<?> step, Calculation<?> calculation, SlotAccess context, SourceLookup sources) {
+		switch (step.kind) {
+			case Primitives.DOUBLE:
+				if (calculation instanceof DoubleCalculation) {
+					DoubleCalculation doubleCalculation = (DoubleCalculation) calculation;
+					if (doubleCalculation.isDefined(sources)) {
+						context.setValidDouble(step.slot, doubleCalculation.calculateDouble(sources));
+					} else {
+						context.setValid(step.slot, null);
+					}
+					return true;
+				}
+				return false;
+			case Primitives.LONG:
+				if (calculation instanceof LongCalculation) {
+					LongCalculation longCalculation = (LongCalculation) calculation;
+					if (longCalculation.isDefined(sources)) {
+						context.setValidLong(step.slot, longCalculation.calculateLong(sources));
+					} else {
+						context.setValid(step.slot, null);
+					}
+					return true;
+				}
+				return false;
+			case Primitives.INT:
+				if (calculation instanceof IntCalculation) {
+					IntCalculation intCalculation = (IntCalculation) calculation;
+					if (intCalculation.isDefined(sources)) {
+						context.setValidInt(step.slot, intCalculation.calculateInt(sources));
+					} else {
+						context.setValid(step.slot, null);
+					}
+					return true;
+				}
+				return false;
+			default:
+				return false;
+		}
+	}
+
+	private static boolean anySourceTimedOut(SolverPlan.Step<?> step, SlotAccess context) {
+		for (int predecessor : step.predecessors) {
+			if (context.state(predecessor) == SlotContext.TIMED_OUT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static <T> @Nullable T calculate(SolverPlan.Step<T> step, Calculation<T> calculation, SourceLookup sourceLookup, SolveOptions options,
+		SolveLimits limits) {
+		if (limits.hasTimeouts()) {
+			return Cancellation.run(limits, () -> calculate(step, calculation, sourceLookup, options));
+		}
+		return calculate(step, calculation, sourceLookup, options);
+	}
+
+	private static <T> @Nullable T calculate(SolverPlan.Step<T> step, Calculation<T> calculation, SourceLookup sourceLookup, SolveOptions options) {
+		if (calculation.isPure() && options.memoCache().isPresent()) {
+			return options.memoCache().get().calculate(calculation, step.calculationSources, sourceLookup);
+		}
+		return calculation.calculate(sourceLookup);
+	}
+
+	static <T> CompletableFuture<Void> evaluateAsync(SolverPlan.Step<T> step, SlotAccess context, ValueLookup lookup, SolveOptions options,
+		SolveLimits limits) {
+		if (limits.anyTimedOut() && anySourceTimedOut(step, context)) {
+			context.setTimedOut(step.slot);
+			return CompletableFuture.completedFuture(null);
+		}
+		if (step.calculation instanceof AsyncCalculation) {
+			return ((AsyncCalculation<T>) step.calculation).calculateAsync(new SourceLookup(step, context, lookup))
+				.thenAccept(calculated -> {
+					complete(step, context, calculated);
+					if (step.chainSlots.length != 0 && fuseChains(options, limits)) {
+						evaluateChain(step, context, lookup);
+					}
+				});
+		}
+		evaluate(step, context, lookup, options, limits);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	// validate and store
+	static <T> void complete(SolverPlan.Step<T> step, SlotAccess context, @Nullable T calculated) {
+		Validation<T> validation = step.validation;
+		if (validation != null) {
+			List<ValidatedValue<?>> sources = new ArrayList<>(step.validationSources.length);
+			ImmutableSet.Builder<ValueSource<?>> invalidSources = ImmutableSet.builder();
+			for (int i = 0; i < step.validationSources.length; i++) {
+				ValidatedValue<?> validatedValue = validatedValue(context, step.validationSources[i], step.validationSourceSlots[i]);
+				if (!validatedValue.isValid()) {
+					invalidSources.add(validatedValue.source());
+				}
+				sources.add(validatedValue);
+			}
+
+			List<ErrorMessage> errorMessages = validation.validate(Optional.ofNullable(calculated), StrictValidatedValueLookup.with(sources));
+			if (errorMessages.isEmpty()) {
+				context.setValid(step.slot, calculated);
+			} else {
+				context.setInvalid(step.slot, ValidationError.of(errorMessages, invalidSources.build()));
+			}
+		} else {
+			context.setValid(step.slot, calculated);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ValidatedValue<T> validatedValue(SlotAccess context, ValueSource<T> id, int slot) {
+		switch (context.state(slot)) {
+			case SlotContext.UNVALIDATED:
+			case SlotContext.VALID:
+				return ValidatedValue.of(id, (T) context.value(slot));
+			default:
+				return ValidatedValue.of(id, context.error(slot));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> @Nullable T sourceValue(SlotAccess context, ValueLookup lookup, int slot, Value<T> id) {
+		switch (context.state(slot)) {
+			case SlotContext.VALID:
+				return (T) context.value(slot);
+			case SlotContext.INVALID:
+				return null;
+			default:
+				return lookup.get(id);
+		}
+	}
+
+	// calculation sources are resolved by position, the hint makes the usual in-order access cheap
+	static final class SourceLookup implements PrimitiveValueLookup {
+		private final SolverPlan.Step<?> step;
+		private final SlotAccess context;
+		private final ValueLookup lookup;
+		private int hint = 0;
+
+		SourceLookup(SolverPlan.Step<?> step, SlotAccess context, ValueLookup lookup) {
+			this.step = step;
+			this.context = context;
+			this.lookup = lookup;
+		}
+
+		SourceLookup reset() {
+			hint = 0;
+			return this;
+		}
+
+		@Override
+		public <T> @Nullable T get(Value<T> id) {
+			return sourceValue(context, lookup, slotOf(id), id);
+		}
+
+		@Override
+		public boolean isSet(Value<?> id) {
+			int slot = slotOf(id);
+			switch (context.state(slot)) {
+				case SlotContext.VALID:
+					return context.hasValue(slot);
+				case SlotContext.INVALID:
+					return false;
+				default:
+					return lookup.get(id) != null;
+			}
+		}
+
+		@Override
+		public double getDouble(Value<Double> id) {
+			int slot = slotOf(id);
+			return context.state(slot) == SlotContext.VALID
+				? context.doubleValue(slot)
+				: PrimitiveValueLookup.super.getDouble(id);
+		}
+
+		@Override
+		public long getLong(Value<Long> id) {
+			int slot = slotOf(id);
+			return context.state(slot) == SlotContext.VALID
+				? context.longValue(slot)
+				: PrimitiveValueLookup.super.getLong(id);
+		}
+
+		@Override
+		public int getInt(Value<Integer> id) {
+			int slot = slotOf(id);
+			return context.state(slot) == SlotContext.VALID
+				? context.intValue(slot)
+				: PrimitiveValueLookup.super.getInt(id);
+		}
+
+		private int slotOf(Value<?> id) {
+			int index = indexOf(id);
+			if (index == -1) {
+				throw new IllegalArgumentException("value not set: " + id);
+			}
+			return step.calculationSourceSlots[index];
+		}
+
+		private int indexOf(Value<?> id) {
+			ValueSource<?>[] sources = step.calculationSources;
+			for (int i = hint; i < sources.length; i++) {
+				if (sources[i] == id) {
+					hint = i + 1;
+					return i;
+				}
+			}
+			for (int i = 0; i < sources.length; i++) {
+				if (sources[i].equals(id)) {
+					hint = i + 1;
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface ValueCodec<T> {
+	// stored in each snapshot, must not change
+	String id();
+
+	Class<T> type();
+
+	void write(T value, DataOutput out) throws IOException;
+
+	T read(DataInput in) throws IOException;
+
+	interface Writer<T> {
+		void write(T value, DataOutput out) throws IOException;
+	}
+
+	interface Reader<T> {
+		T read(DataInput in) throws IOException;
+	}
+
+	static <T> ValueCodec<T> of(Class<T> type, Writer<T> writer, Reader<T> reader) {
+		return of(type.getName(), type, writer, reader);
+	}
+
+	static <T> ValueCodec<T> of(String id, Class<T> type, Writer<T> writer, Reader<T> reader) {
+		return new ValueCodec<T>() {
+			@Override
+			public String id() {
+				return id;
+			}
+
+			@Override
+			public Class<T> type() {
+				return type;
+			}
+
+			@Override
+			public void write(T value, DataOutput out) throws IOException {
+				writer.write(value, out);
+			}
+
+			@Override
+			public T read(DataInput in) throws IOException {
+				return reader.read(in);
+			}
+		};
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import de.flapdoodle.formula.types.Checks;
+import org.immutables.value.Value;
+
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Value.Immutable
+public abstract class ValueCodecs {
+	protected abstract List<ValueCodec<?>> codecs();
+
+	@Value.Check
+	protected void check() {
+		Set<String> collidingIds = Checks.collisions(codecs(), ValueCodec::id);
+		Preconditions.checkArgument(collidingIds.isEmpty(), "multiple codecs with following ids: %s", collidingIds);
+	}
+
+	@Value.Lazy
+	protected Map<String, ValueCodec<?>> byId() {
+		return codecs().stream()
+			.collect(Collectors.toMap(ValueCodec::id, Function.identity()));
+	}
+
+	@Value.Lazy
+	protected Map<Class<?>, ValueCodec<?>> byType() {
+		return codecs().stream()
+			.collect(Collectors.toMap(ValueCodec::type, Function.identity(), (first, second) -> first));
+	}
+
+	@Value.Auxiliary
+	public @Nullable ValueCodec<?> codecById(String id) {
+		return byId().get(id);
+	}
+
+	// exact type first, then the first codec of a matching super type
+	@Value.Auxiliary
+	@SuppressWarnings("unchecked")
+	public <T> ValueCodec<? super T> codecFor(T value) {
+		ValueCodec<?> codec = byType().get(value.getClass());
+		if (codec == null) {
+			codec = codecs().stream()
+				.filter(it -> it.type().isInstance(value))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("no codec for " + value.getClass()));
+		}
+		return (ValueCodec<? super T>) codec;
+	}
+
+	public ValueCodecs with(ValueCodec<?> codec) {
+		return ImmutableValueCodecs.builder()
+			.from(this)
+			.addCodecs(codec)
+			.build();
+	}
+
+	public static ValueCodecs empty() {
+		return ImmutableValueCodecs.builder().build();
+	}
+
+	public static ValueCodecs defaults() {
+		return empty()
+			.with(ValueCodec.of(String.class, (value, out) -> out.writeUTF(value), in -> in.readUTF()))
+			.with(ValueCodec.of(Integer.class, (value, out) -> out.writeInt(value), in -> in.readInt()))
+			.with(ValueCodec.of(Long.class, (value, out) -> out.writeLong(value), in -> in.readLong()))
+			.with(ValueCodec.of(Double.class, (value, out) -> out.writeDouble(value), in -> in.readDouble()))
+			.with(ValueCodec.of(Boolean.class, (value, out) -> out.writeBoolean(value), in -> in.readBoolean()))
+			.with(ValueCodec.of(BigInteger.class, ValueCodecs::writeBigInteger, ValueCodecs::readBigInteger))
+			.with(ValueCodec.of(BigDecimal.class, (value, out) -> {
+				out.writeInt(value.scale());
+				writeBigInteger(value.unscaledValue(), out);
+			}, in -> {
+				int scale = in.readInt();
+				return new BigDecimal(readBigInteger(in), scale);
+			}));
+	}
+
+	private static void writeBigInteger(BigInteger value, DataOutput out) throws IOException {
+		byte[] bytes = value.toByteArray();
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static BigInteger readBigInteger(DataInput in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new BigInteger(bytes);
+	}
+}
@@ -27,13 +27,10 @@ import de.flapdoodle.formula.rules.CalculationMap;
 import de.flapdoodle.formula.rules.Rules;
 import de.flapdoodle.formula.rules.ValidationMap;
 import de.flapdoodle.formula.validation.Validation;
-import de.flapdoodle.graph.GraphBuilder;
-import org.jgrapht.graph.DefaultDirectedGraph;
-import org.jgrapht.graph.DefaultEdge;
 
 import javax.annotation.Nullable;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 public abstract class ValueDependencyGraphBuilder {
@@ -43,16 +40,33 @@ public abstract class ValueDependencyGraphBuilder {
 	}
 
 	public static ValueGraph build(Rules rules) {
-		DefaultDirectedGraph<Value<?>, DefaultEdge> graph = buildGraph(rules.calculations(), rules.validations());
+		Wrapper builder = buildGraph(rules.calculations(), rules.validations());
 
 		return new ValueGraph(
-			graph,
+			builder.dense.build(),
 			rules.calculations(),
 			rules.validations()
 		);
 	}
 
-	private static DefaultDirectedGraph<Value<?>, DefaultEdge> buildGraph(CalculationMap calculations, ValidationMap validations) {
+	// sources are resolved and edges inserted in parallel, the loop check runs on the calling thread
+	public static ValueGraph build(Rules rules, ForkJoinPool pool) {
+		DenseGraph denseGraph = pool.submit(() -> {
+			rules.calculations().all().parallelStream()
+				.forEach(calculation -> calculation.sources().forEach(it -> {
+					Preconditions.checkArgument(!(it instanceof Unvalidated), "not allowed in calculation: %s", it);
+				}));
+			return DenseGraph.inParallel(rules.calculations(), rules.validations());
+		}).join();
+
+		return new ValueGraph(
+			denseGraph,
+			rules.calculations(),
+			rules.validations()
+		);
+	}
+
+	private static Wrapper buildGraph(CalculationMap calculations, ValidationMap validations) {
 		Wrapper builder = new Wrapper();
 
 		Set<ValueSource<?>> allSources = Stream.concat(
@@ -82,11 +96,11 @@ public abstract class ValueDependencyGraphBuilder {
 			}
 		});
 
-		return builder.build();
+		return builder;
 	}
 
 	private static class Wrapper {
-		private final GraphBuilder<Value<?>, DefaultEdge, DefaultDirectedGraph<Value<?>, DefaultEdge>> builder = GraphBuilder.withDirectedGraph();
+		private final DenseGraph.Builder dense = DenseGraph.builder();
 
 		Wrapper add(
 			Value<?> destination,
@@ -95,36 +109,15 @@ public abstract class ValueDependencyGraphBuilder {
 			@Nullable
 			Validation<?> validation
 		) {
-			Set<? extends ValueSource<?>> calcSources = Optional.ofNullable(calculation)
-				.filter(c -> {
-					c.sources().forEach(it -> {
-						Preconditions.checkArgument(!(it instanceof Unvalidated), "not allowed in calculation: %s", it);
-					});
-					return true;
-				})
-				.map(Calculation::sources)
-				.orElse(ImmutableSet.of());
-
-			Set<? extends ValueSource<?>> validationSources = Optional.ofNullable(validation)
-				.map(Validation::sources)
-				.orElse(ImmutableSet.of());
-
-			ImmutableSet<Value<?>> allSources = ImmutableSet.<Value<?>>builder()
-				.addAll(calcSources)
-				.addAll(validationSources)
-				.build();
-
-			builder.addVertex(destination);
-			allSources.forEach(it -> {
-				builder.addVertex(it);
-				builder.addEdge(it, destination);
-			});
+			if (calculation != null) {
+				calculation.sources().forEach(it -> {
+					Preconditions.checkArgument(!(it instanceof Unvalidated), "not allowed in calculation: %s", it);
+				});
+			}
 
-			return this;
-		}
+			dense.add(destination, calculation, validation);
 
-		public DefaultDirectedGraph<Value<?>, DefaultEdge> build() {
-			return builder.build();
+			return this;
 		}
 	}
 }
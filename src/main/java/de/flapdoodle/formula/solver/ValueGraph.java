@@ -17,7 +17,6 @@
 package de.flapdoodle.formula.solver;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import de.flapdoodle.formula.Value;
 import de.flapdoodle.formula.ValueSource;
@@ -25,39 +24,46 @@ import de.flapdoodle.formula.calculate.Calculation;
 import de.flapdoodle.formula.rules.CalculationMap;
 import de.flapdoodle.formula.rules.ValidationMap;
 import de.flapdoodle.formula.validation.Validation;
-import de.flapdoodle.graph.Graphs;
-import de.flapdoodle.graph.Loop;
+import de.flapdoodle.graph.GraphBuilder;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class ValueGraph {
-	private final DefaultDirectedGraph<Value<?>, DefaultEdge> graph;
+	private final DenseGraph denseGraph;
 	private final CalculationMap calculationMap;
 	private final ValidationMap validationMap;
+	// dense ids in evaluation order
+	private final int[] evaluationOrder;
+
+	private volatile DefaultDirectedGraph<Value<?>, DefaultEdge> graph;
+	private volatile SolverPlan plan;
+	private volatile SolverPlan optimizedPlan;
 
 	// only visible in this package
 	ValueGraph(
-		DefaultDirectedGraph<Value<?>, DefaultEdge> graph,
+		DenseGraph denseGraph,
 		CalculationMap calculationMap,
 		ValidationMap validationMap
 	) {
-		this.graph = graph;
+		this(denseGraph, calculationMap, validationMap, EvaluationOrder.of(denseGraph));
+	}
+
+	// evaluation order is already known, no loops
+	ValueGraph(
+		DenseGraph denseGraph,
+		CalculationMap calculationMap,
+		ValidationMap validationMap,
+		int[] evaluationOrder
+	) {
+		Preconditions.checkArgument(evaluationOrder.length == denseGraph.size(), "evaluation order does not match graph size");
+		this.denseGraph = denseGraph;
 		this.calculationMap = calculationMap;
 		this.validationMap = validationMap;
-
-		List<Loop<Value<?>, DefaultEdge>> loops = Graphs.rootsOf(graph).stream()
-			.flatMap(it -> it.loops().stream())
-			.collect(Collectors.toList());
-
-		if (!loops.isEmpty()) {
-			String asDot = GraphRenderer.renderGraphAsDot(graph);
-			throw new IllegalArgumentException(Strings.lenientFormat("loops detected: %s\n-8<-------\n%s\n->8-------\n", loops, asDot));
-		}
+		this.evaluationOrder = evaluationOrder;
 	}
 
 	public <T> Calculation<T> calculation(Value<T> key) {
@@ -77,11 +83,57 @@ public class ValueGraph {
 	}
 
 	public DefaultDirectedGraph<Value<?>, DefaultEdge> graph() {
-		return graph;
+		DefaultDirectedGraph<Value<?>, DefaultEdge> current = graph;
+		if (current == null) {
+			current = graphOf(denseGraph);
+			graph = current;
+		}
+		return current;
+	}
+
+	private static DefaultDirectedGraph<Value<?>, DefaultEdge> graphOf(DenseGraph denseGraph) {
+		GraphBuilder<Value<?>, DefaultEdge, DefaultDirectedGraph<Value<?>, DefaultEdge>> builder = GraphBuilder.withDirectedGraph();
+		for (int id = 0; id < denseGraph.size(); id++) {
+			builder.addVertex(denseGraph.value(id));
+		}
+		for (int id = 0; id < denseGraph.size(); id++) {
+			for (int i = denseGraph.predecessorOffset(id); i < denseGraph.predecessorOffset(id + 1); i++) {
+				builder.addEdge(denseGraph.value(denseGraph.predecessorAt(i)), denseGraph.value(id));
+			}
+		}
+		return builder.build();
+	}
+
+	DenseGraph denseGraph() {
+		return denseGraph;
+	}
+
+	// already checked for loops
+	int[] evaluationOrder() {
+		return evaluationOrder;
+	}
+
+	public SolverPlan plan() {
+		SolverPlan current = plan;
+		if (current == null) {
+			current = SolverPlan.of(this);
+			plan = current;
+		}
+		return current;
+	}
+
+	// same results, aliases, Map1 chains and identical calculations are evaluated with less overhead
+	public SolverPlan optimizedPlan() {
+		SolverPlan current = optimizedPlan;
+		if (current == null) {
+			current = SolverPlan.optimized(this);
+			optimizedPlan = current;
+		}
+		return current;
 	}
 
 	public Explanation explain(Value<?> destination) {
-		Preconditions.checkArgument(graph.containsVertex(destination),"value not found: %s", destination);
+		Preconditions.checkArgument(denseGraph.id(destination) != -1,"value not found: %s", destination);
 
 		Set<Value<?>> explainedValues = new LinkedHashSet<>();
 
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.types.Checks;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// explicit names of values, which stay the same between runs
+@org.immutables.value.Value.Immutable
+public abstract class ValueNames {
+	protected abstract Map<Value<?>, String> names();
+
+	@org.immutables.value.Value.Check
+	protected void check() {
+		Set<String> collidingNames = Checks.collisions(names().values(), Function.identity());
+		Preconditions.checkArgument(collidingNames.isEmpty(), "multiple values with following names: %s", collidingNames);
+	}
+
+	@org.immutables.value.Value.Lazy
+	protected Map<String, Value<?>> byName() {
+		return names().entrySet().stream()
+			.collect(ImmutableMap.toImmutableMap(Map.Entry::getValue, Map.Entry::getKey));
+	}
+
+	@org.immutables.value.Value.Auxiliary
+	public @Nullable String nameOf(Value<?> value) {
+		return names().get(value);
+	}
+
+	@org.immutables.value.Value.Auxiliary
+	public @Nullable Value<?> valueOf(String name) {
+		return byName().get(name);
+	}
+
+	public ValueNames with(Value<?> value, String name) {
+		return ImmutableValueNames.builder()
+			.from(this)
+			.putNames(value, name)
+			.build();
+	}
+
+	public static ValueNames empty() {
+		return ImmutableValueNames.builder().build();
+	}
+
+	public static <T extends Value<?>> ValueNames of(Iterable<T> values, Function<? super T, String> nameOf) {
+		ImmutableValueNames.Builder builder = ImmutableValueNames.builder();
+		for (T value : values) {
+			builder.putNames(value, nameOf.apply(value));
+		}
+		return builder.build();
+	}
+}
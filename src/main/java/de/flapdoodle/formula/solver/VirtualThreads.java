@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// java 21+ implementation in src/main/java21 (multi release jar)
+public abstract class VirtualThreads {
+	private VirtualThreads() {
+		// no instance
+	}
+
+	public static boolean isSupported() {
+		return false;
+	}
+
+	// fallback to the bounded common pool, a thread for each task would be unbounded with platform threads,
+	// use SolveOptions.parallel with your own executor if calculations block
+	public static Executor executor() {
+		return ForkJoinPool.commonPool();
+	}
+}
@@ -19,6 +19,7 @@ package de.flapdoodle.formula.types;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -27,6 +28,9 @@ public abstract class Checks {
 		// no instance
 	}
 
+	// only used by the parallel build, smaller collections are checked in the calling thread
+	static final int PARALLEL_THRESHOLD = 10_000;
+
 	public static <T, ID> Set<ID> collisions(Collection<T> values, Function<T, ID> idFunction) {
 		return values.stream()
 			.collect(Collectors.groupingBy(idFunction))
@@ -36,4 +40,19 @@ public abstract class Checks {
 			.map(Map.Entry::getKey)
 			.collect(Collectors.toSet());
 	}
+
+	// large collections are checked in parallel in the given pool
+	public static <T, ID> Set<ID> collisions(Collection<T> values, Function<T, ID> idFunction, ForkJoinPool pool) {
+		if (values.size() < PARALLEL_THRESHOLD) {
+			return collisions(values, idFunction);
+		}
+		return pool.submit(() -> values.parallelStream()
+				.collect(Collectors.groupingByConcurrent(idFunction, Collectors.counting()))
+				.entrySet()
+				.stream()
+				.filter(it -> it.getValue() != 1)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet()))
+			.join();
+	}
 }
@@ -19,6 +19,7 @@ package de.flapdoodle.formula.validation;
 import de.flapdoodle.formula.Value;
 import de.flapdoodle.formula.ValueSource;
 import org.immutables.value.Value.Auxiliary;
+import org.immutables.value.Value.Default;
 import org.immutables.value.Value.Lazy;
 import org.immutables.value.Value.Parameter;
 
@@ -37,6 +38,12 @@ public interface Validation<D> {
 	@Auxiliary
 	List<ErrorMessage> validate(Optional<D> unvalidatedValue, ValidatedValueLookup values);
 
+	// expected duration in microseconds, used to schedule expensive validations first
+	@Default
+	default double declaredCost() {
+		return 1.0;
+	}
+
 	static List<ErrorMessage> noErrors() {
 		return Collections.emptyList();
 	}
@@ -51,6 +51,10 @@ public abstract class RelatedTo1<X, A> implements Validation<X>, HasHumanReadabl
 		return HasHumanReadableLabel.asHumanReadable(validation());
 	}
 
+	public RelatedTo1<X, A> withCost(double cost) {
+		return ImmutableRelatedTo1.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <X, A> RelatedTo1<X, A> with(
 		de.flapdoodle.formula.Value<X> destination,
 		ValueSource<A> source,
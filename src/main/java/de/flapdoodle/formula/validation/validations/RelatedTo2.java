@@ -54,6 +54,10 @@ public abstract class RelatedTo2<X, A, B> implements Validation<X>, HasHumanRead
 		return HasHumanReadableLabel.asHumanReadable(validation());
 	}
 
+	public RelatedTo2<X, A, B> withCost(double cost) {
+		return ImmutableRelatedTo2.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <X, A, B> RelatedTo2<X, A, B> with(
 		de.flapdoodle.formula.Value<X> destination,
 		ValueSource<A> a,
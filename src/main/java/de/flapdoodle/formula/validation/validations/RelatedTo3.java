@@ -57,6 +57,10 @@ public abstract class RelatedTo3<X, A, B, C> implements Validation<X>, HasHumanR
 		return HasHumanReadableLabel.asHumanReadable(validation());
 	}
 
+	public RelatedTo3<X, A, B, C> withCost(double cost) {
+		return ImmutableRelatedTo3.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <X, A, B, C> RelatedTo3<X, A, B, C> with(
 		de.flapdoodle.formula.Value<X> destination,
 		ValueSource<A> a,
@@ -61,6 +61,10 @@ public abstract class RelatedTo4<X, A, B, C, D> implements Validation<X>, HasHum
 		return HasHumanReadableLabel.asHumanReadable(validation());
 	}
 
+	public RelatedTo4<X, A, B, C, D> withCost(double cost) {
+		return ImmutableRelatedTo4.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <X, A, B, C, D> RelatedTo4<X, A, B, C, D> with(
 		de.flapdoodle.formula.Value<X> destination,
 		ValueSource<A> a,
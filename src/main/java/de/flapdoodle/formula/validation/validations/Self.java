@@ -49,6 +49,10 @@ public abstract class Self<X> implements Validation<X>, HasHumanReadableLabel {
 		return HasHumanReadableLabel.asHumanReadable(validation());
 	}
 
+	public Self<X> withCost(double cost) {
+		return ImmutableSelf.copyOf(this).withDeclaredCost(cost);
+	}
+
 	public static <X> Self<X> with(
 		de.flapdoodle.formula.Value<X> destination,
 		V0<X> validation
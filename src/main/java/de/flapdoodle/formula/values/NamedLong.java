@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.values;
+
+import de.flapdoodle.formula.SinkAndSource;
+import de.flapdoodle.formula.types.HasHumanReadableLabel;
+import org.immutables.value.Value.Immutable;
+import org.immutables.value.Value.Parameter;
+
+// long value, stored without boxing by the solver
+@Immutable(builder = false)
+public abstract class NamedLong implements SinkAndSource<Long>, HasHumanReadableLabel {
+	@Parameter
+	protected abstract String name();
+
+	@Override
+	@org.immutables.value.Value.Lazy
+	public String asHumanReadable() {
+		return name() + "(long)";
+	}
+
+	public static NamedLong named(String name) {
+		return ImmutableNamedLong.of(name);
+	}
+}
@@ -16,10 +16,43 @@
  */
 package de.flapdoodle.formula.values.domain;
 
+import com.google.common.base.Preconditions;
+import de.flapdoodle.formula.calculate.Calculation;
 import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.types.Checks;
+import de.flapdoodle.formula.validation.Validation;
 import org.immutables.value.Value;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
 public interface HasRules {
 	@Value.Auxiliary
 	Rules addRulesTo(Rules rules);
+
+	// rules of each instance are created in parallel and merged in one step, collisions between instances
+	// are checked in the pool before merging, the merged maps check them once more in the calling thread
+	static Rules rulesOf(Collection<? extends HasRules> instances, ForkJoinPool pool) {
+		List<Rules> fragments = pool.submit(() -> instances.parallelStream()
+				.map(it -> it.addRulesTo(Rules.empty()))
+				.collect(Collectors.toList()))
+			.join();
+
+		List<Calculation<?>> calculations = fragments.stream()
+			.flatMap(it -> it.calculations().all().stream())
+			.collect(Collectors.toList());
+		Set<de.flapdoodle.formula.Value<?>> collidingCalculations = Checks.collisions(calculations, Calculation::destination, pool);
+		Preconditions.checkArgument(collidingCalculations.isEmpty(), "multiple entries with following ids: %s", collidingCalculations);
+
+		List<Validation<?>> validations = fragments.stream()
+			.flatMap(it -> it.validations().all().stream())
+			.collect(Collectors.toList());
+		Set<de.flapdoodle.formula.Value<?>> collidingValidations = Checks.collisions(validations, Validation::destination, pool);
+		Preconditions.checkArgument(collidingValidations.isEmpty(), "multiple entries with following ids: %s", collidingValidations);
+
+		return Rules.empty().addRules(fragments);
+	}
 }
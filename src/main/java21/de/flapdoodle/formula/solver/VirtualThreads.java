@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import java.util.concurrent.Executor;
+
+public abstract class VirtualThreads {
+	private static final Executor EXECUTOR = Thread::startVirtualThread;
+
+	private VirtualThreads() {
+		// no instance
+	}
+
+	public static boolean isSupported() {
+		return true;
+	}
+
+	// one new virtual thread for each task
+	public static Executor executor() {
+		return EXECUTOR;
+	}
+}
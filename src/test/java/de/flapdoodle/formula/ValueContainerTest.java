@@ -16,9 +16,14 @@
  */
 package de.flapdoodle.formula;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import de.flapdoodle.formula.values.Named;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -43,6 +48,37 @@ class ValueContainerTest {
 			.containsExactly(foo, bar);
 	}
 
+	@Test
+	void ofValuesAndNullValues() {
+		Named<String> foo = Value.ofType(String.class);
+		Named<Integer> bar = Value.named("bar", Integer.class);
+
+		ValueContainer testee = ValueContainer.of(ImmutableMap.of(foo, "foo"), ImmutableSet.of(bar));
+
+		assertThat(testee).isEqualTo(ValueContainer.empty().add(foo, "foo").add(bar, null));
+		assertThat(testee.get(bar)).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void deprecatedBuilderCreatesValueContainer() {
+		Named<String> foo = Value.ofType(String.class);
+		Named<Integer> bar = Value.named("bar", Integer.class);
+		Named<Integer> baz = Value.named("baz", Integer.class);
+
+		ValueContainer testee = ImmutableValueContainer.builder()
+			.putValues(foo, "foo")
+			.addNullValues(bar)
+			.build();
+
+		assertThat(testee).isEqualTo(ValueContainer.empty().add(foo, "foo").add(bar, null));
+		assertThat(ImmutableValueContainer.builder().from(testee).putValues(baz, 1).build())
+			.isEqualTo(testee.add(baz, 1));
+		assertThatThrownBy(() -> ImmutableValueContainer.builder().from(testee).addNullValues(foo))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("already set");
+	}
+
 	@Test
 	void canNotAddAValueTwice() {
 		Named<String> foo = Value.ofType(String.class);
@@ -60,4 +96,58 @@ class ValueContainerTest {
 			.isInstanceOf(IllegalArgumentException.class)
 			.hasMessageContaining("already set to");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void previousContainerIsNotChanged() {
+		ValueContainer current = ValueContainer.empty();
+		List<ValueContainer> versions = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			versions.add(current);
+			current = current.add(Value.named("value" + i, Integer.class), i % 7 == 0 ? null : i);
+		}
+
+		assertThat(current.size()).isEqualTo(1000);
+		for (int i = 0; i < 1000; i++) {
+			Named<Integer> id = Value.named("value" + i, Integer.class);
+			assertThat(current.get(id)).isEqualTo(i % 7 == 0 ? null : i);
+			assertThat(versions.get(i).size()).isEqualTo(i);
+			assertThat(versions.get(i).contains(id)).isFalse();
+			if (i > 0) {
+				assertThat(versions.get(i).contains(Value.named("value" + (i - 1), Integer.class))).isTrue();
+			}
+		}
+		assertThat(current.keys()).first().isEqualTo(Value.named("value0", Integer.class));
+		assertThat(current.keys()).last().isEqualTo(Value.named("value999", Integer.class));
+	}
+
+	@Test
+	void valuesWithSameHashCode() {
+		Named<String> first = Value.named("Aa", String.class);
+		Named<String> second = Value.named("BB", String.class);
+		assertThat(first.hashCode()).isEqualTo(second.hashCode());
+
+		ValueContainer testee = ValueContainer.empty()
+			.add(first, "first")
+			.add(second, "second");
+
+		assertThat(testee.get(first)).isEqualTo("first");
+		assertThat(testee.get(second)).isEqualTo("second");
+		assertThat(testee.contains(Value.named("C#", String.class))).isFalse();
+		assertThatThrownBy(() -> testee.add(second, null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("already set to");
+	}
+
+	@Test
+	void equalityDoesNotDependOnOrder() {
+		Named<String> foo = Value.named("foo", String.class);
+		Named<Integer> bar = Value.named("bar", Integer.class);
+
+		ValueContainer first = ValueContainer.empty().add(foo, "foo").add(bar, null);
+		ValueContainer second = ValueContainer.empty().add(bar, null).add(foo, "foo");
+
+		assertThat(first).isEqualTo(second);
+		assertThat(first.hashCode()).isEqualTo(second.hashCode());
+		assertThat(first).isNotEqualTo(ValueContainer.empty().add(foo, "foo").add(bar, 1));
+	}
+}
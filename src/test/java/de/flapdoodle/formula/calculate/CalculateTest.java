@@ -29,6 +29,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static de.flapdoodle.formula.Value.named;
@@ -699,6 +700,56 @@ class CalculateTest {
 
 	}
 
+	/**
+	 * Async Tests
+	 */
+	@Nested
+	class AsyncTests {
+		ValueSource<Integer> a = named("a", Integer.class);
+		ValueSource<Integer> b = named("b", Integer.class);
+		ValueSink<String> destination = named("dest", String.class);
+
+		@Test
+		void valueRequiringByAsync() {
+			AsyncMerge2<Integer, Integer, String> testee = Calculate.value(destination).requiring(a, b)
+				.byAsync((x, y) -> CompletableFuture.completedFuture("" + (x + y)), "label");
+
+			assertThat(testee.sources()).containsExactly(a, b);
+			assertThat(testee.destination()).isEqualTo(destination);
+			assertThat(testee.asHumanReadable()).isEqualTo("label");
+
+			assertThat(testee.calculateAsync(valueLookup(MappedValue.of(a, 1), MappedValue.of(b, 2))))
+				.isCompletedWithValue("3");
+			assertThat(testee.calculate(valueLookup(MappedValue.of(a, 1), MappedValue.of(b, 2))))
+				.isEqualTo("3");
+			assertNullPointerExceptionIfAnyValueIsNull(testee, "label", MappedValue.of(a, 1), MappedValue.of(b, 2));
+		}
+
+		@Test
+		void valueUsingByAsync() {
+			AsyncMap1<Integer, String> testee = Calculate.value(destination).using(a)
+				.byAsync(x -> CompletableFuture.completedFuture(x != null ? "" + x : null));
+
+			assertThat(testee.sources()).containsExactly(a);
+			assertThat(testee.calculateAsync(valueLookup(MappedValue.of(a, 1)))).isCompletedWithValue("1");
+			assertThat(testee.calculateAsync(valueLookup(MappedValue.of(a, null)))).isCompletedWithValue(null);
+		}
+
+		@Test
+		void blockingCalculateRethrowsCause() {
+			AsyncMap1<Integer, String> testee = Calculate.value(destination).requiring(a)
+				.byAsync(x -> {
+					CompletableFuture<String> failed = new CompletableFuture<>();
+					failed.completeExceptionally(new IllegalStateException("kaboom"));
+					return failed;
+				});
+
+			assertThatThrownBy(() -> testee.calculate(valueLookup(MappedValue.of(a, 1))))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("kaboom");
+		}
+	}
+
 	static ValueLookup valueLookup(MappedValue<?>... values) {
 		return StrictValueLookup.of(values);
 	}
@@ -80,4 +80,28 @@ class RulesTest {
 		assertThat(merged.calculations().get(number)).isEqualTo(numberCalculation);
 		assertThat(merged.validations().get(number)).isEqualTo(numberValidation);
 	}
-}
\ No newline at end of file
+
+	@Test
+	void fingerprintDoesNotDependOnOrder() {
+		Named<String> foo = Value.named("foo", String.class);
+		Named<Integer> number = Value.named("number", Integer.class);
+
+		Generated<String> fooCalculation = Calculate.value(foo).by(() -> "foo");
+		Generated<Integer> numberCalculation = Calculate.value(number).by(() -> 2);
+		Self<Integer> numberValidation = Validate.value(number).by(value -> Arrays.asList(ErrorMessage.of("crash")));
+
+		Rules rules = Rules.empty()
+			.add(fooCalculation, numberCalculation)
+			.add(numberValidation);
+		Rules sameRules = Rules.empty()
+			.add(numberValidation)
+			.add(numberCalculation, fooCalculation);
+		Rules otherRules = Rules.empty()
+			.add(fooCalculation, numberCalculation);
+
+		assertThat(rules.fingerprint()).isEqualTo(sameRules.fingerprint());
+		assertThat(rules.sameRulesAs(sameRules)).isTrue();
+		assertThat(rules.sameRulesAs(otherRules)).isFalse();
+		assertThat(rules.sameRulesAs(Rules.empty().add(fooCalculation, numberCalculation.withCost(2.0)).add(numberValidation))).isFalse();
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncSolverTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> x = Value.named("x", Integer.class);
+	private final Named<Integer> y = Value.named("y", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+
+	@Test
+	void independentAsyncCalculationsOverlap() throws Exception {
+		AtomicInteger started = new AtomicInteger();
+		CompletableFuture<Void> bothStarted = new CompletableFuture<>();
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(x).requiring(a).byAsync(it -> waitForOther(started, bothStarted, it * 2)))
+			.add(Calculate.value(y).requiring(b).byAsync(it -> waitForOther(started, bothStarted, it * 3)))
+			.add(Calculate.value(sum).requiring(x, y).by(Integer::sum))
+			.add(Validate.value(y).by(value -> value.filter(it -> it > 10).isPresent()
+				? Validation.error("to-big")
+				: Validation.noErrors())));
+
+		Result result = Solver.solveAsync(valueGraph, StrictValueLookup.of(
+			MappedValue.of(a, 1),
+			MappedValue.of(b, 2)
+		)).get(5, TimeUnit.SECONDS);
+
+		assertThat(result.get(x)).isEqualTo(2);
+		assertThat(result.get(y)).isEqualTo(6);
+		assertThat(result.get(sum)).isEqualTo(8);
+		assertThat(result.validationErrors()).isEmpty();
+	}
+
+	@Test
+	void failedCalculationFailsResult() {
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(x).requiring(a).byAsync(it -> {
+				CompletableFuture<Integer> failed = new CompletableFuture<>();
+				failed.completeExceptionally(new IllegalStateException("kaboom"));
+				return failed;
+			}))
+			.add(Calculate.value(sum).requiring(x, b).by(Integer::sum)));
+
+		CompletableFuture<Result> result = Solver.solveAsync(valueGraph, StrictValueLookup.of(
+			MappedValue.of(a, 1),
+			MappedValue.of(b, 2)
+		));
+
+		assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+			.isInstanceOf(ExecutionException.class)
+			.hasRootCauseInstanceOf(IllegalStateException.class)
+			.hasRootCauseMessage("kaboom");
+	}
+
+	@Test
+	void asyncCalculationOfTimedOutSourceIsNotStarted() throws Exception {
+		AtomicInteger started = new AtomicInteger();
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(x).requiring(a).by(it -> {
+				while (true) {
+					Cancellation.checkpoint();
+					Thread.yield();
+				}
+			}))
+			.add(Calculate.value(y).requiring(x).byAsync(it -> {
+				started.incrementAndGet();
+				return CompletableFuture.completedFuture(it);
+			})));
+
+		Result result = Solver.solveAsync(valueGraph.plan(), StrictValueLookup.of(MappedValue.of(a, 1)), SolveOptions.builder()
+			.calculationTimeout(Duration.ofMillis(20))
+			.build()).get(5, TimeUnit.SECONDS);
+
+		assertThat(result.timedOut()).containsExactlyInAnyOrder(x, y);
+		assertThat(started.get()).isZero();
+	}
+
+	private static CompletableFuture<Integer> waitForOther(AtomicInteger started, CompletableFuture<Void> bothStarted, int value) {
+		if (started.incrementAndGet() == 2) {
+			bothStarted.complete(null);
+		}
+		return bothStarted.thenApply(ignore -> value);
+	}
+}
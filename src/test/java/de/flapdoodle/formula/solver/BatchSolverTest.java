@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.ColumnarValueLookup;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import de.flapdoodle.formula.values.NamedDouble;
+import de.flapdoodle.formula.values.NamedLong;
+import org.junit.jupiter.api.Test;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchSolverTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+	private final Named<Integer> doubled = Value.named("doubled", Integer.class);
+
+	private final ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+		.add(Calculate.value(sum).using(a, b).by((x, y) -> x != null && y != null ? x + y : null))
+		.add(Calculate.value(doubled).using(sum).by(x -> x != null ? x * 2 : null))
+		.add(Validate.value(a).by(value -> value.filter(it -> it % 10 == 3).isPresent()
+			? Validation.error("ends-with-3")
+			: Validation.noErrors())));
+
+	@Test
+	void sameResultAsSolvingEachRow() {
+		int rows = 1000;
+		List<Integer> aColumn = new ArrayList<>();
+		List<Integer> bColumn = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			aColumn.add(i);
+			bColumn.add(i % 3 == 0 ? null : i * 7);
+		}
+
+		BatchResult batch = Solver.solveBatch(valueGraph, ColumnarValueLookup.empty(rows)
+			.with(a, aColumn)
+			.with(b, bColumn));
+
+		assertThat(batch.size()).isEqualTo(rows);
+		for (int i = 0; i < rows; i++) {
+			Result single = Solver.solve(valueGraph, StrictValueLookup.of(
+				MappedValue.of(a, aColumn.get(i)),
+				MappedValue.of(b, bColumn.get(i))));
+
+			Result row = batch.row(i);
+			assertThat(row.validatedValues()).containsExactlyElementsOf(single.validatedValues());
+			assertThat(row.validationErrors()).isEqualTo(single.validationErrors());
+			assertThat(batch.hasValidationErrors(i)).isEqualTo(!single.validationErrors().isEmpty());
+			assertThat(batch.get(doubled, i)).isEqualTo(single.get(doubled));
+		}
+		assertThat(batch.get(doubled, 4)).isEqualTo(64);
+		assertThat(batch.validationErrors(3)).containsOnlyKeys(a);
+	}
+
+	@Test
+	void columnsMustMatchBatchSize() {
+		assertThatThrownBy(() -> ColumnarValueLookup.empty(2).with(a, Arrays.asList(1, 2, 3)))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("column " + a + " has 3 rows, expected 2");
+	}
+
+	@Test
+	void shadowedValuesAreDetected() {
+		assertThatThrownBy(() -> Solver.solveBatch(valueGraph, ColumnarValueLookup.empty(1)
+			.with(a, Arrays.asList(1))
+			.with(b, Arrays.asList(1))
+			.with(sum, Arrays.asList(1))))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("value lookup values are shadowed by calculations");
+	}
+
+	@Test
+	void primitiveValuesAreStoredInColumns() {
+		NamedDouble price = Value.namedDouble("price");
+		NamedDouble withTax = Value.namedDouble("withTax");
+		NamedLong count = Value.namedLong("count");
+		NamedLong doubledCount = Value.namedLong("doubledCount");
+
+		SolverPlan plan = SolverPlan.of(ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.doubleValue(withTax).using(price).ifAllSetBy(it -> it * 2.0))
+			.add(Calculate.longValue(doubledCount).using(count).ifAllSetBy(it -> it * 2))
+			.add(Validate.value(count).by(value -> value.filter(it -> it < 0).isPresent()
+				? Validation.error("negative")
+				: Validation.noErrors()))));
+
+		int rows = 100;
+		List<Double> prices = new ArrayList<>();
+		List<Long> counts = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			prices.add(i % 10 == 0 ? null : i * 1.5);
+			counts.add(i % 25 == 0 ? -1L : (long) i);
+		}
+
+		BatchResult batch = Solver.solveBatch(plan, ColumnarValueLookup.empty(rows)
+			.with(price, prices)
+			.with(count, counts), SolveOptions.defaults());
+
+		BatchColumn withTaxColumn = batch.column(withTax);
+		DoubleBuffer raw = withTaxColumn.asDoubleBuffer();
+		assertThat(raw.capacity()).isEqualTo(rows);
+		for (int i = 0; i < rows; i++) {
+			if (i % 10 == 0) {
+				assertThat(withTaxColumn.isNull(i)).isTrue();
+				assertThat(batch.get(withTax, i)).isNull();
+			} else {
+				assertThat(withTaxColumn.isSet(i)).isTrue();
+				assertThat(withTaxColumn.getDouble(i)).isEqualTo(i * 3.0);
+				assertThat(raw.get(i)).isEqualTo(i * 3.0);
+				assertThat(batch.row(i).getDouble(withTax)).isEqualTo(i * 3.0);
+			}
+		}
+
+		assertThat(batch.column(count).invalidRows().cardinality()).isEqualTo(4);
+		assertThat(batch.column(doubledCount).nullRows().cardinality()).isEqualTo(4);
+		assertThat(batch.column(doubledCount).getLong(7)).isEqualTo(14L);
+		assertThat(batch.row(7).get(doubledCount)).isEqualTo(14L);
+
+		assertThatThrownBy(() -> batch.column(doubledCount).asDoubleBuffer())
+			.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> batch.column(a))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("unknown value");
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CancellationTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> slow = Value.named("slow", Integer.class);
+	private final Named<Integer> afterSlow = Value.named("afterSlow", Integer.class);
+	private final Named<Integer> fast = Value.named("fast", Integer.class);
+
+	private final ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+		.add(Calculate.value(slow).requiring(a).by(x -> {
+			while (true) {
+				Cancellation.checkpoint();
+				Thread.yield();
+			}
+		}))
+		.add(Calculate.value(afterSlow).requiring(slow).by(x -> x + 1))
+		.add(Calculate.value(fast).requiring(a).by(x -> x + 2)));
+
+	private final StrictValueLookup lookup = StrictValueLookup.of(MappedValue.of(a, 1));
+
+	@Test
+	void solveTimeoutMarksAllRemainingValuesAsTimedOut() {
+		Result result = Solver.solve(valueGraph, lookup, SolveOptions.timeout(Duration.ofMillis(50)));
+
+		assertThat(result.isTruncated()).isTrue();
+		assertThat(result.timedOut()).contains(slow, afterSlow);
+		assertThat(result.validatedValues()).contains(a);
+		assertThat(result.validationErrors()).isEmpty();
+		assertThatThrownBy(() -> result.get(afterSlow))
+			.isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void calculationTimeoutOnlyAffectsDependingValues() {
+		Result result = Solver.solve(valueGraph, lookup, SolveOptions.builder()
+			.calculationTimeout(Duration.ofMillis(20))
+			.build());
+
+		assertThat(result.isTruncated()).isFalse();
+		assertThat(result.timedOut()).containsExactlyInAnyOrder(slow, afterSlow);
+		assertThat(result.get(fast)).isEqualTo(3);
+	}
+
+	@Test
+	void cancelledSolveStopsAfterFirstValue() {
+		CancellationToken token = CancellationToken.create();
+		token.cancel();
+
+		Result result = Solver.solve(valueGraph, lookup, SolveOptions.cancelable(token));
+
+		assertThat(result.isTruncated()).isTrue();
+		assertThat(result.validatedValues()).containsExactly(a);
+		assertThat(result.timedOut()).containsExactlyInAnyOrder(slow, afterSlow, fast);
+	}
+
+	@Test
+	void checkpointOutsideOfSolveDoesNothing() {
+		Cancellation.checkpoint();
+	}
+}
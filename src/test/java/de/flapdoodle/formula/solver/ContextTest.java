@@ -17,6 +17,7 @@
 package de.flapdoodle.formula.solver;
 
 import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.ValueContainer;
 import de.flapdoodle.formula.validation.ErrorMessage;
 import de.flapdoodle.formula.validation.ValidationError;
 import de.flapdoodle.formula.values.Named;
@@ -55,4 +56,24 @@ class ContextTest {
 			.isInstanceOf(IllegalArgumentException.class)
 			.hasMessageContaining("validated AND invalid");
 	}
-}
\ No newline at end of file
+
+	@Test
+	void detectCollisionsOfCopiesAndBuilders() {
+		Named<String> foo = Value.named("foo", String.class);
+		ValueContainer withFoo = ValueContainer.empty().add(foo, "foo");
+
+		Context testee = Context.empty()
+			.add(foo, "foo");
+
+		assertThatThrownBy(() -> ImmutableContext.copyOf(testee).withUnvalidated(withFoo))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("validated AND unvalidated");
+
+		assertThatThrownBy(() -> ImmutableContext.builder()
+			.unvalidated(withFoo)
+			.putValidationErrorMap(foo, ValidationError.of(Arrays.asList(ErrorMessage.of("kaboom")), Collections.emptySet()))
+			.build())
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("unvalidated AND invalid");
+	}
+}
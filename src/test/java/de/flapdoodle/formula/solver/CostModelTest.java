@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CostModelTest {
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> light = Value.named("light", Integer.class);
+	private final Named<Integer> heavy = Value.named("heavy", Integer.class);
+	private final Named<Integer> afterHeavy = Value.named("afterHeavy", Integer.class);
+
+	private final List<Value<?>> calculated = Collections.synchronizedList(new ArrayList<>());
+
+	private final ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+		.add(Calculate.value(light).requiring(a).by(x -> track(light, x)))
+		.add(Calculate.value(heavy).requiring(a).by(x -> track(heavy, x)).withCost(100))
+		.add(Calculate.value(afterHeavy).requiring(heavy).by(x -> track(afterHeavy, x)))
+		.add(Validate.value(afterHeavy).by(value -> Validation.noErrors()).withCost(50)));
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void criticalPathContainsCostOfAllFollowingValues() {
+		SolverPlan plan = valueGraph.plan();
+		double[] criticalPath = CostModel.declared().criticalPath(plan);
+
+		assertThat(criticalPath[plan.slotOf(afterHeavy)]).isEqualTo(51.0);
+		assertThat(criticalPath[plan.slotOf(heavy)]).isEqualTo(151.0);
+		assertThat(criticalPath[plan.slotOf(light)]).isEqualTo(1.0);
+		assertThat(criticalPath[plan.slotOf(a)]).isEqualTo(151.0);
+	}
+
+	@Test
+	void mostExpensivePathIsStartedFirst() {
+		Result result = Solver.solve(valueGraph, StrictValueLookup.of(MappedValue.of(a, 1)), SolveOptions.builder()
+			.executor(executor)
+			.costModel(CostModel.declared())
+			.build());
+
+		assertThat(result.get(afterHeavy)).isEqualTo(1);
+		assertThat(calculated).containsExactly(heavy, afterHeavy, light);
+	}
+
+	@Test
+	void learnedCostsReplaceDeclaredCosts() {
+		CostModel costModel = CostModel.learning();
+
+		Solver.solve(valueGraph, StrictValueLookup.of(MappedValue.of(a, 1)), SolveOptions.builder()
+			.costModel(costModel)
+			.build());
+
+		assertThat(costModel.measured(heavy)).isPresent();
+		assertThat(costModel.measured(light)).isPresent();
+		assertThat(CostModel.declared().measured(heavy)).isEmpty();
+	}
+
+	private Integer track(Value<?> value, Integer x) {
+		calculated.add(value);
+		return x;
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.calculate.ValueLookup;
+import de.flapdoodle.formula.values.Named;
+import de.flapdoodle.formula.values.domain.Cart;
+import de.flapdoodle.formula.values.domain.ChangeableInstanceValueLookup;
+import de.flapdoodle.formula.values.domain.HasRules;
+import de.flapdoodle.formula.values.domain.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DenseGraphTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+	private final Named<Integer> doubled = Value.named("doubled", Integer.class);
+
+	private final ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+		.add(Calculate.value(sum).using(a, b).by((x, y) -> x + y))
+		.add(Calculate.value(doubled).using(sum).by(x -> x * 2))
+		.add(Validate.value(doubled).using(a).by((value, other) -> Validation.noErrors())));
+
+	@Test
+	void everyValueHasOneDenseId() {
+		DenseGraph testee = valueGraph.denseGraph();
+
+		assertThat(testee.size()).isEqualTo(valueGraph.graph().vertexSet().size());
+		for (int id = 0; id < testee.size(); id++) {
+			assertThat(testee.id(testee.value(id))).isEqualTo(id);
+		}
+		assertThat(testee.id(Value.named("unknown", Integer.class))).isEqualTo(-1);
+		assertThat(testee.calculation(testee.id(sum))).isSameAs(valueGraph.calculation(sum));
+		assertThat(testee.validation(testee.id(doubled))).isSameAs(valueGraph.validation(doubled));
+		assertThat(testee.calculation(testee.id(a))).isNull();
+	}
+
+	@Test
+	void adjacencyMatchesGraph() {
+		DenseGraph testee = valueGraph.denseGraph();
+
+		assertThat(predecessors(testee, doubled)).containsExactlyInAnyOrder(sum, a);
+		assertThat(predecessors(testee, a)).isEmpty();
+		assertThat(successors(testee, a)).containsExactlyInAnyOrder(sum, doubled);
+		assertThat(successors(testee, doubled)).isEmpty();
+
+		for (int id = 0; id < testee.size(); id++) {
+			Value<?> value = testee.value(id);
+			assertThat(predecessors(testee, value)).hasSize(valueGraph.graph().inDegreeOf(value));
+			assertThat(successors(testee, value)).hasSize(valueGraph.graph().outDegreeOf(value));
+		}
+	}
+
+	private static List<Value<?>> predecessors(DenseGraph graph, Value<?> value) {
+		int id = graph.id(value);
+		List<Value<?>> ret = new ArrayList<>();
+		for (int i = graph.predecessorOffset(id); i < graph.predecessorOffset(id + 1); i++) {
+			ret.add(graph.value(graph.predecessorAt(i)));
+		}
+		return ret;
+	}
+
+	private static List<Value<?>> successors(DenseGraph graph, Value<?> value) {
+		int id = graph.id(value);
+		List<Value<?>> ret = new ArrayList<>();
+		for (int i = graph.successorOffset(id); i < graph.successorOffset(id + 1); i++) {
+			ret.add(graph.value(graph.successorAt(i)));
+		}
+		return ret;
+	}
+
+	@Test
+	void parallelBuildSolvesLikeBuilder() {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			items.add(Item.builder().name("item" + i).quantity(i % 7).price(1.5).build());
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Rules rules = HasRules.rulesOf(items, pool);
+			ValueGraph parallel = ValueDependencyGraphBuilder.build(rules, pool);
+			ValueGraph sequential = ValueDependencyGraphBuilder.build(rules);
+
+			assertThat(rules.calculations().all()).hasSize(items.size());
+			assertThat(parallel.denseGraph().size()).isEqualTo(sequential.denseGraph().size());
+
+			Result result = Solver.solve(parallel, ChangeableInstanceValueLookup.of(Cart.builder().addAllItems(items).build(), ValueLookup.failOnEachValue()));
+			for (Item item : items) {
+				assertThat(result.get(Item.sumProperty.withId(item.id()))).isEqualTo(item.quantity() * 1.5);
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void parallelRuleGenerationDetectsCollisions() {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			items.add(Item.builder().name("item" + i).build());
+		}
+		items.add(items.get(0));
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertThatThrownBy(() -> HasRules.rulesOf(items, pool))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("multiple entries");
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+}
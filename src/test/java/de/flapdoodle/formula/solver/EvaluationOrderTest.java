@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EvaluationOrderTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+	private final Named<Integer> doubled = Value.named("doubled", Integer.class);
+
+	@Test
+	void everySourceComesBeforeItsDestination() {
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(doubled).using(sum).by(x -> x * 2))
+			.add(Calculate.value(sum).using(a, b).by((x, y) -> x + y)));
+		DenseGraph graph = valueGraph.denseGraph();
+
+		int[] order = valueGraph.evaluationOrder();
+		int[] position = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			position[order[i]] = i;
+		}
+
+		assertThat(order).hasSize(graph.size());
+		for (int id = 0; id < graph.size(); id++) {
+			for (int i = graph.predecessorOffset(id); i < graph.predecessorOffset(id + 1); i++) {
+				assertThat(position[graph.predecessorAt(i)]).isLessThan(position[id]);
+			}
+		}
+	}
+
+	@Test
+	void onlyLoopAndItsNeighboursAreReported() {
+		Rules rules = Rules.empty()
+			.add(Calculate.value(sum).using(a, doubled).by((x, y) -> x + y))
+			.add(Calculate.value(doubled).using(sum).by(x -> x * 2));
+		for (int i = 0; i < 100; i++) {
+			Named<Integer> unrelated = Value.named("unrelated" + i, Integer.class);
+			rules = rules.add(Calculate.value(unrelated).using(b).by(x -> x));
+		}
+		Rules withLoop = rules;
+
+		assertThatThrownBy(() -> ValueDependencyGraphBuilder.build(withLoop))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageStartingWith("loops detected: [")
+			.hasMessageContaining("sum(Integer) -> doubled(Integer) -> sum(Integer)")
+			.satisfies(it -> assertThat(it.getMessage())
+				.contains("label=\"a(Integer)\"")
+				.doesNotContain("unrelated"));
+	}
+
+	@Test
+	void selfReferenceIsALoop() {
+		assertThatThrownBy(() -> ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(sum).using(sum).by(x -> x))))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("sum(Integer) -> sum(Integer)");
+	}
+}
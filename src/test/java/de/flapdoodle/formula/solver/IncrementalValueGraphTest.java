@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.calculate.calculations.Map1;
+import de.flapdoodle.formula.calculate.calculations.Merge2;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IncrementalValueGraphTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+	private final Named<Integer> doubled = Value.named("doubled", Integer.class);
+	private final Named<Integer> total = Value.named("total", Integer.class);
+
+	private final Merge2<Integer, Integer, Integer> sumCalculation = Calculate.value(sum).using(a, b).by((x, y) -> x + y);
+	private final Map1<Integer, Integer> doubledCalculation = Calculate.value(doubled).using(sum).by(x -> x * 2);
+	private final Merge2<Integer, Integer, Integer> totalCalculation = Calculate.value(total).using(doubled, a).by((x, y) -> x + y);
+
+	private final StrictValueLookup input = StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 2));
+
+	@Test
+	void rulesAddedInAnyOrderSolveLikeFullBuild() {
+		IncrementalValueGraph testee = IncrementalValueGraph.empty()
+			.add(totalCalculation)
+			.add(doubledCalculation)
+			.add(sumCalculation);
+
+		Result result = Solver.solve(testee.plan(), input);
+		Result expected = Solver.solve(ValueDependencyGraphBuilder.build(Rules.empty().add(sumCalculation, doubledCalculation, totalCalculation)), input);
+
+		assertThat(result.get(total)).isEqualTo(7).isEqualTo(expected.get(total));
+		assertThat(testee.valueGraph().evaluationOrder()).hasSize(5);
+		assertThat(testee.version()).isEqualTo(3);
+	}
+
+	@Test
+	void snapshotIsReusedUntilRulesChange() {
+		IncrementalValueGraph testee = IncrementalValueGraph.of(Rules.empty().add(sumCalculation, doubledCalculation));
+
+		ValueGraph first = testee.valueGraph();
+		assertThat(testee.valueGraph()).isSameAs(first);
+
+		testee.add(totalCalculation);
+		assertThat(testee.valueGraph()).isNotSameAs(first);
+	}
+
+	@Test
+	void removedCalculationIsNotPartOfTheGraph() {
+		IncrementalValueGraph testee = IncrementalValueGraph.of(Rules.empty().add(sumCalculation, doubledCalculation, totalCalculation))
+			.removeCalculation(total);
+
+		assertThat(testee.rules().calculations().all()).containsExactly(sumCalculation, doubledCalculation);
+		assertThat(testee.valueGraph().denseGraph().id(total)).isEqualTo(-1);
+		assertThat(Solver.solve(testee.plan(), input).get(doubled)).isEqualTo(6);
+	}
+
+	@Test
+	void ruleClosingALoopIsRejectedAndGraphStaysUsable() {
+		IncrementalValueGraph testee = IncrementalValueGraph.of(Rules.empty().add(sumCalculation, doubledCalculation));
+
+		assertThatThrownBy(() -> testee.add(Calculate.value(a).using(doubled).by(x -> x)))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageStartingWith("loops detected: [");
+
+		assertThat(testee.version()).isEqualTo(2);
+		assertThat(Solver.solve(testee.plan(), input).get(doubled)).isEqualTo(6);
+	}
+}
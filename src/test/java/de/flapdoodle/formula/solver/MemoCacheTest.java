@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.calculate.calculations.Merge2;
+import de.flapdoodle.formula.calculate.functions.FN2;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoCacheTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+	private final Named<Integer> product = Value.named("product", Integer.class);
+
+	private final AtomicInteger sumCalls = new AtomicInteger();
+	private final AtomicInteger productCalls = new AtomicInteger();
+
+	private final Merge2<Integer, Integer, Integer> sumCalculation = Calculate.value(sum).using(a, b)
+		.by((x, y) -> {
+			sumCalls.incrementAndGet();
+			return x + y;
+		})
+		.pure();
+
+	private final ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+		.add(sumCalculation)
+		.add(Calculate.value(product).using(a, b).by((x, y) -> {
+			productCalls.incrementAndGet();
+			return x * y;
+		})));
+
+	@Test
+	void pureCalculationIsOnlyCalledOnceForSameSources() {
+		MemoCache memoCache = MemoCache.maximumSize(100);
+		SolveOptions options = SolveOptions.memoized(memoCache);
+
+		assertThat(sumCalculation.isPure()).isTrue();
+
+		Result first = Solver.solve(valueGraph, lookup(2, 3), options);
+		Result second = Solver.solve(valueGraph, lookup(2, 3), options);
+		Result other = Solver.solve(valueGraph, lookup(3, 3), options);
+
+		assertThat(first.get(sum)).isEqualTo(5);
+		assertThat(second.get(sum)).isEqualTo(5);
+		assertThat(other.get(sum)).isEqualTo(6);
+		assertThat(second.get(product)).isEqualTo(6);
+
+		assertThat(sumCalls.get()).isEqualTo(2);
+		assertThat(productCalls.get()).isEqualTo(3);
+		assertThat(memoCache.hitCount()).isEqualTo(1);
+		assertThat(memoCache.missCount()).isEqualTo(2);
+		assertThat(memoCache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void sameCalculationForOtherDestinationIsShared() {
+		MemoCache memoCache = MemoCache.maximumSize(100);
+		SolveOptions options = SolveOptions.memoized(memoCache);
+		Named<Integer> otherSum = Value.named("otherSum", Integer.class);
+		FN2<Integer, Integer, Integer> add = (x, y) -> {
+			sumCalls.incrementAndGet();
+			return x + y;
+		};
+
+		ValueGraph first = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(sum).using(a, b).by(add).pure()));
+		ValueGraph second = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(otherSum).using(a, b).by(add).pure()));
+
+		assertThat(Solver.solve(first, lookup(2, 3), options).get(sum)).isEqualTo(5);
+		assertThat(Solver.solve(second, lookup(2, 3), options).get(otherSum)).isEqualTo(5);
+
+		assertThat(sumCalls.get()).isEqualTo(1);
+		assertThat(memoCache.hitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvicted() {
+		MemoCache memoCache = MemoCache.maximumSize(1);
+		SolveOptions options = SolveOptions.memoized(memoCache);
+
+		Solver.solve(valueGraph, lookup(1, 1), options);
+		Solver.solve(valueGraph, lookup(2, 2), options);
+		Solver.solve(valueGraph, lookup(1, 1), options);
+
+		assertThat(sumCalls.get()).isEqualTo(3);
+		assertThat(memoCache.evictionCount()).isEqualTo(2);
+		assertThat(memoCache.hitCount()).isEqualTo(0);
+	}
+
+	@Test
+	void withoutCachePureCalculationIsCalledEachTime() {
+		Solver.solve(valueGraph, lookup(2, 3));
+		Solver.solve(valueGraph, lookup(2, 3));
+
+		assertThat(sumCalls.get()).isEqualTo(2);
+	}
+
+	private StrictValueLookup lookup(int aValue, int bValue) {
+		return StrictValueLookup.of(MappedValue.of(a, aValue), MappedValue.of(b, bValue));
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.calculate.functions.FN2;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OptimizedPlanTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> copy = Value.named("copy", Integer.class);
+	private final Named<Integer> plusOne = Value.named("plusOne", Integer.class);
+	private final Named<Integer> doubled = Value.named("doubled", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+
+	private final ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+		.add(Calculate.value(copy).from(a))
+		.add(Calculate.value(plusOne).using(copy).by(x -> x + 1))
+		.add(Calculate.value(doubled).using(plusOne).by(x -> x * 2))
+		.add(Calculate.value(sum).using(doubled, a).by((x, y) -> x + y)));
+
+	private final StrictValueLookup input = StrictValueLookup.of(MappedValue.of(a, 3));
+	private final List<Named<Integer>> allValues = Arrays.asList(a, copy, plusOne, doubled, sum);
+
+	@Test
+	void identityCopyIsAnAliasAndMap1ChainIsFused() {
+		SolverPlan testee = valueGraph.optimizedPlan();
+
+		SolverPlan.Step<?> copyStep = testee.step(testee.slotOf(copy));
+		assertThat(copyStep.alias).isTrue();
+		assertThat(copyStep.chainSlots).containsExactly(testee.slotOf(plusOne), testee.slotOf(doubled));
+		assertThat(testee.step(testee.slotOf(plusOne)).fusedInto).isEqualTo(copyStep.slot);
+		assertThat(testee.step(testee.slotOf(doubled)).fusedInto).isEqualTo(copyStep.slot);
+		assertThat(testee.step(testee.slotOf(sum)).fusedInto).isEqualTo(-1);
+
+		SolverPlan plain = valueGraph.plan();
+		assertThat(plain.steps()).noneMatch(step -> step.alias || step.fusedInto != -1 || step.chainSlots.length != 0);
+	}
+
+	@Test
+	void chainBehindAsyncCalculationIsSolvedAsync() throws Exception {
+		Named<Integer> fetched = Value.named("fetched", Integer.class);
+		ValueGraph asyncGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(fetched).requiring(a).byAsync(x -> CompletableFuture.supplyAsync(() -> x + 10)))
+			.add(Calculate.value(plusOne).using(fetched).by(x -> x + 1))
+			.add(Calculate.value(doubled).using(plusOne).by(x -> x * 2)));
+		SolverPlan testee = asyncGraph.optimizedPlan();
+		assertThat(testee.step(testee.slotOf(fetched)).chainSlots).hasSize(2);
+
+		Result result = Solver.solveAsync(testee, input).get(5, TimeUnit.SECONDS);
+
+		assertThat(result.validatedValues()).contains(fetched, plusOne, doubled);
+		assertThat(result.get(plusOne)).isEqualTo(14);
+		assertThat(result.get(doubled)).isEqualTo(28);
+	}
+
+	@Test
+	void optimizedPlanReportsEveryValue() {
+		Result expected = Solver.solve(valueGraph.plan(), input);
+		Result result = Solver.solve(valueGraph.optimizedPlan(), input);
+
+		for (Named<Integer> value : allValues) {
+			assertThat(result.get(value)).isEqualTo(expected.get(value));
+		}
+		assertThat(result.get(sum)).isEqualTo(11);
+	}
+
+	@Test
+	void optimizedPlanSolvesInParallelAndMemoized() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Result parallel = Solver.solve(valueGraph.optimizedPlan(), input, SolveOptions.parallel(executor));
+			Result memoized = Solver.solve(valueGraph.optimizedPlan(), input, SolveOptions.memoized(MemoCache.maximumSize(10)));
+
+			for (Named<Integer> value : allValues) {
+				assertThat(parallel.get(value)).isEqualTo(Solver.solve(valueGraph, input).get(value));
+				assertThat(memoized.get(value)).isEqualTo(Solver.solve(valueGraph, input).get(value));
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void identicalCalculationsAreEvaluatedOnce() {
+		Named<Integer> first = Value.named("first", Integer.class);
+		Named<Integer> second = Value.named("second", Integer.class);
+		Named<Integer> validated = Value.named("validated", Integer.class);
+		Named<Integer> otherOrder = Value.named("otherOrder", Integer.class);
+		AtomicInteger calls = new AtomicInteger();
+		FN2<Integer, Integer, Integer> difference = (x, y) -> {
+			calls.incrementAndGet();
+			return x - y;
+		};
+
+		ValueGraph graph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(first).using(a, sum).by(difference))
+			.add(Calculate.value(second).using(a, sum).by(difference))
+			.add(Calculate.value(validated).using(a, sum).by(difference))
+			.add(Calculate.value(otherOrder).using(sum, a).by(difference))
+			.add(Calculate.value(sum).using(a, a).by((x, y) -> x + y))
+			.add(Validate.value(validated).using(a).by((value, other) -> Validation.noErrors())));
+		SolverPlan testee = graph.optimizedPlan();
+
+		assertThat(testee.step(testee.slotOf(second)).sharedWith).isEqualTo(testee.slotOf(first));
+		assertThat(testee.step(testee.slotOf(validated)).sharedWith).isEqualTo(testee.slotOf(first));
+		assertThat(testee.step(testee.slotOf(otherOrder)).sharedWith).isEqualTo(-1);
+
+		Result result = Solver.solve(testee, input);
+		assertThat(calls.get()).isEqualTo(2);
+		assertThat(result.get(first)).isEqualTo(-3);
+		assertThat(result.get(second)).isEqualTo(-3);
+		assertThat(result.get(validated)).isEqualTo(-3);
+		assertThat(result.get(otherOrder)).isEqualTo(3);
+
+		calls.set(0);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Result parallel = Solver.solve(testee, input, SolveOptions.parallel(executor));
+			assertThat(calls.get()).isEqualTo(2);
+			assertThat(parallel.get(second)).isEqualTo(-3);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelSolverTest {
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@AfterEach
+	void shutdown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void sameResultAsSequentialSolver() {
+		Named<Integer> total = Value.named("total", Integer.class);
+
+		Rules rules = Rules.empty();
+		List<MappedValue<?>> inputs = new ArrayList<>();
+		List<Named<Integer>> sums = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++) {
+			Named<Integer> a = Value.named("a" + i, Integer.class);
+			Named<Integer> b = Value.named("b" + i, Integer.class);
+			Named<Integer> sum = Value.named("sum" + i, Integer.class);
+			sums.add(sum);
+			inputs.add(MappedValue.of(a, i));
+			inputs.add(MappedValue.of(b, i % 7));
+
+			rules = rules
+				.add(Calculate.value(sum).requiring(a, b).by((x, y) -> x * y))
+				.add(Validate.value(sum).by(value -> value.filter(it -> it > 500).isPresent()
+					? Validation.error("to-big")
+					: Validation.noErrors()));
+		}
+
+		rules = rules.add(Calculate.value(total).aggregating(sums)
+			.by(list -> list.stream().filter(Objects::nonNull).mapToInt(it -> it).sum()));
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(rules);
+		StrictValueLookup lookup = StrictValueLookup.of(inputs);
+
+		Result sequential = Solver.solve(valueGraph, lookup);
+		Result parallel = Solver.solve(valueGraph, lookup, SolveOptions.parallel(pool));
+
+		assertThat(parallel.validatedValues()).containsExactlyElementsOf(sequential.validatedValues());
+		assertThat(parallel.validationErrors()).isEqualTo(sequential.validationErrors());
+		assertThat(parallel.validationErrors()).isNotEmpty();
+		for (Value<?> value : sequential.validatedValues()) {
+			assertThat((Object) parallel.get(value)).isEqualTo(sequential.get(value));
+		}
+		assertThat(parallel.get(total)).isEqualTo(sequential.get(total));
+	}
+
+	@Test
+	void exceptionInCalculationIsPassedToCaller() {
+		Named<Integer> a = Value.named("a", Integer.class);
+		Named<Integer> b = Value.named("b", Integer.class);
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(b).requiring(a).by(x -> {
+				throw new IllegalStateException("kaboom");
+			})));
+
+		assertThatThrownBy(() -> Solver.solve(valueGraph, StrictValueLookup.of(MappedValue.of(a, 1)), SolveOptions.parallel(pool)))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("kaboom");
+	}
+
+	@Test
+	void virtualThreadsFallBackToPlatformThreads() {
+		Named<Integer> a = Value.named("a", Integer.class);
+		Named<Integer> b = Value.named("b", Integer.class);
+
+		AtomicReference<Thread> calculatedBy = new AtomicReference<>();
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(b).requiring(a).by(x -> {
+				calculatedBy.set(Thread.currentThread());
+				return x + 1;
+			})));
+		StrictValueLookup lookup = StrictValueLookup.of(MappedValue.of(a, 1));
+
+		// the java 21 implementation is only part of the jar, see VirtualThreadsIT
+		assertThat(VirtualThreads.isSupported()).isFalse();
+		assertThat(VirtualThreads.executor()).isSameAs(ForkJoinPool.commonPool());
+		assertThat(Solver.solve(valueGraph, lookup, SolveOptions.virtualThreads()).get(b)).isEqualTo(2);
+		assertThat(calculatedBy.get())
+			.isInstanceOfSatisfying(ForkJoinWorkerThread.class, it -> assertThat(it.getPool()).isSameAs(ForkJoinPool.commonPool()));
+	}
+
+	@Test
+	void errorBudgetStopsParallelSolver() {
+		Rules rules = Rules.empty();
+		List<MappedValue<?>> inputs = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Named<Integer> a = Value.named("a" + i, Integer.class);
+			Named<Integer> b = Value.named("b" + i, Integer.class);
+			inputs.add(MappedValue.of(a, i));
+			rules = rules
+				.add(Calculate.value(b).requiring(a).by(x -> x + 1))
+				.add(Validate.value(b).by(value -> Validation.error("invalid")));
+		}
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(rules);
+		Result result = Solver.solve(valueGraph, StrictValueLookup.of(inputs), SolveOptions.builder()
+			.executor(pool)
+			.errorBudget(3)
+			.build());
+
+		assertThat(result.isTruncated()).isTrue();
+		assertThat(result.validationErrors().size()).isBetween(3, 100);
+	}
+
+	@Test
+	void independentComponentsAreSolvedAsOneTaskEach() {
+		Rules rules = Rules.empty();
+		List<MappedValue<?>> inputs = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			Named<Integer> a = Value.named("a" + i, Integer.class);
+			Named<Integer> b = Value.named("b" + i, Integer.class);
+			Named<Integer> c = Value.named("c" + i, Integer.class);
+			inputs.add(MappedValue.of(a, i));
+			rules = rules
+				.add(Calculate.value(b).requiring(a).by(x -> x + 1))
+				.add(Calculate.value(c).requiring(a, b).by((x, y) -> x * y))
+				.add(Validate.value(c).by(value -> value.filter(it -> it > 1000).isPresent()
+					? Validation.error("to-big")
+					: Validation.noErrors()));
+		}
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(rules);
+		StrictValueLookup lookup = StrictValueLookup.of(inputs);
+
+		assertThat(valueGraph.plan().components().length).isEqualTo(50);
+
+		Result sequential = Solver.solve(valueGraph, lookup);
+		Result components = Solver.solve(valueGraph, lookup, SolveOptions.components(pool));
+
+		assertThat(components.validatedValues()).containsExactlyElementsOf(sequential.validatedValues());
+		assertThat(components.validationErrors()).isEqualTo(sequential.validationErrors());
+		assertThat(components.validationErrors()).isNotEmpty();
+		for (Value<?> value : sequential.validatedValues()) {
+			assertThat((Object) components.get(value)).isEqualTo(sequential.get(value));
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import de.flapdoodle.formula.values.domain.HasRules;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionedSolverTest {
+
+	@Test
+	void sameResultAsLocalSolve() throws IOException {
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(new ChainsAndAggregation().addRulesTo(Rules.empty()));
+		StrictValueLookup lookup = StrictValueLookup.of(ChainsAndAggregation.inputs());
+
+		Result local = Solver.solve(valueGraph, lookup);
+
+		try (PartitionedSolver solver = PartitionedSolver.start(ChainsAndAggregation.class, 2, 10)) {
+			assertThat(solver.partitionCount()).isGreaterThan(2);
+
+			Result partitioned = solver.solve(lookup);
+
+			assertThat(partitioned.validatedValues()).containsExactlyInAnyOrderElementsOf(local.validatedValues());
+			assertThat(partitioned.validationErrors()).isEqualTo(local.validationErrors());
+			assertThat(partitioned.validationErrors()).isNotEmpty();
+			for (Value<?> value : local.validatedValues()) {
+				assertThat((Object) partitioned.get(value)).isEqualTo(local.get(value));
+			}
+			assertThat(partitioned.get(ChainsAndAggregation.total)).isEqualTo(local.get(ChainsAndAggregation.total));
+		}
+	}
+
+	@Test
+	void partitionsOnlyDependOnEarlierWaves() {
+		SolverPlan plan = ValueDependencyGraphBuilder.build(new ChainsAndAggregation().addRulesTo(Rules.empty())).plan();
+		Partitions partitions = Partitions.of(plan, 10);
+
+		int[] waveOfPartition = new int[partitions.size()];
+		int[][] waves = partitions.waves();
+		for (int wave = 0; wave < waves.length; wave++) {
+			for (int partition : waves[wave]) {
+				waveOfPartition[partition] = wave;
+			}
+		}
+
+		int[] partitionOfSlot = new int[plan.size()];
+		int slots = 0;
+		for (int partition = 0; partition < partitions.size(); partition++) {
+			assertThat(partitions.partition(partition).length).isLessThanOrEqualTo(10);
+			for (int slot : partitions.partition(partition)) {
+				partitionOfSlot[slot] = partition;
+				slots++;
+			}
+		}
+		assertThat(slots).isEqualTo(plan.size());
+
+		for (int slot = 0; slot < plan.size(); slot++) {
+			for (int predecessor : plan.step(slot).predecessors) {
+				if (partitionOfSlot[predecessor] != partitionOfSlot[slot]) {
+					assertThat(waveOfPartition[partitionOfSlot[predecessor]]).isLessThan(waveOfPartition[partitionOfSlot[slot]]);
+				}
+			}
+		}
+	}
+
+	@Test
+	void chainsAreNotCut() {
+		SolverPlan plan = ValueDependencyGraphBuilder.build(new ChainsAndAggregation().addRulesTo(Rules.empty())).plan();
+		Partitions partitions = Partitions.of(plan, 10);
+
+		int[] partitionOfSlot = new int[plan.size()];
+		for (int partition = 0; partition < partitions.size(); partition++) {
+			for (int slot : partitions.partition(partition)) {
+				partitionOfSlot[slot] = partition;
+			}
+		}
+		// the aggregation is larger than a partition
+		for (int i = 0; i < 30; i++) {
+			assertThat(partitionOfSlot[plan.slotOf(Value.named("part" + i, Integer.class))])
+				.isEqualTo(partitionOfSlot[plan.slotOf(Value.named("part_a" + i, Integer.class))]);
+		}
+	}
+
+	public static class ChainsAndAggregation implements HasRules {
+		static final Named<Integer> total = Value.named("total", Integer.class);
+
+		@Override
+		public Rules addRulesTo(Rules rules) {
+			Rules ret = rules;
+			for (int chain = 0; chain < 10; chain++) {
+				Named<Integer> last = input(chain);
+				for (int i = 0; i < 3; i++) {
+					Named<Integer> next = Value.named("chain" + chain + "_" + i, Integer.class);
+					ret = ret.add(Calculate.value(next).using(last).by(x -> x != null ? x + 1 : null));
+					last = next;
+				}
+			}
+
+			List<Named<Integer>> parts = new ArrayList<>();
+			for (int i = 0; i < 30; i++) {
+				Named<Integer> a = Value.named("part_a" + i, Integer.class);
+				Named<Integer> part = Value.named("part" + i, Integer.class);
+				parts.add(part);
+				ret = ret
+					.add(Calculate.value(part).using(a).by(x -> x * 2))
+					.add(Validate.value(part).by(value -> value.filter(it -> it % 3 == 0).isPresent()
+						? Validation.error("divisible-by-3", value.get())
+						: Validation.noErrors()));
+			}
+			return ret.add(Calculate.value(total).aggregating(parts)
+				.by(list -> list.stream().filter(Objects::nonNull).mapToInt(it -> it).sum()));
+		}
+
+		static Named<Integer> input(int chain) {
+			return Value.named("chain" + chain, Integer.class);
+		}
+
+		static List<MappedValue<?>> inputs() {
+			List<MappedValue<?>> ret = new ArrayList<>();
+			for (int chain = 0; chain < 10; chain++) {
+				ret.add(MappedValue.of(input(chain), chain));
+			}
+			for (int i = 0; i < 30; i++) {
+				ret.add(MappedValue.of(Value.named("part_a" + i, Integer.class), i));
+			}
+			return ret;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.calculate.calculations.Map1;
+import de.flapdoodle.formula.calculate.calculations.Merge2;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanCacheTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+	private final Named<Integer> doubled = Value.named("doubled", Integer.class);
+
+	private final Merge2<Integer, Integer, Integer> sumCalculation = Calculate.value(sum).using(a, b).by((x, y) -> x + y);
+	private final Map1<Integer, Integer> doubledCalculation = Calculate.value(doubled).using(sum).by(x -> x * 2);
+
+	@Test
+	void sameRulesShareOnePlan() {
+		PlanCache planCache = PlanCache.maximumSize(10);
+
+		SolverPlan first = planCache.plan(Rules.empty().add(sumCalculation, doubledCalculation));
+		SolverPlan second = planCache.plan(Rules.empty().add(doubledCalculation).add(sumCalculation));
+		SolverPlan other = planCache.plan(Rules.empty().add(sumCalculation));
+
+		assertThat(second).isSameAs(first);
+		assertThat(other).isNotSameAs(first);
+		assertThat(first).isSameAs(first.valueGraph().plan());
+		assertThat(planCache.missCount()).isEqualTo(2);
+		assertThat(planCache.hitCount()).isEqualTo(1);
+		assertThat(planCache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentRequestsBuildPlanOnlyOnce() throws Exception {
+		PlanCache planCache = PlanCache.maximumSize(10);
+		int requests = 64;
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<SolverPlan>> tasks = new ArrayList<>();
+			for (int i = 0; i < requests; i++) {
+				int value = i;
+				tasks.add(() -> {
+					SolverPlan plan = planCache.plan(Rules.empty().add(sumCalculation, doubledCalculation));
+					Result result = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, value), MappedValue.of(b, 1)));
+					assertThat(result.get(doubled)).isEqualTo((value + 1) * 2);
+					return plan;
+				});
+			}
+			List<Future<SolverPlan>> plans = executor.invokeAll(tasks);
+			for (Future<SolverPlan> plan : plans) {
+				assertThat(plan.get()).isSameAs(plans.get(0).get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(planCache.size()).isEqualTo(1);
+	}
+}
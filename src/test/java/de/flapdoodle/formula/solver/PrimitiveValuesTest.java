@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.calculate.calculations.DoubleAggregated;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import de.flapdoodle.formula.values.NamedDouble;
+import de.flapdoodle.formula.values.NamedInt;
+import de.flapdoodle.formula.values.NamedLong;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrimitiveValuesTest {
+	private final NamedDouble price = Value.namedDouble("price");
+	private final NamedDouble otherPrice = Value.namedDouble("otherPrice");
+	private final Named<Double> boxedPrice = Value.named("boxedPrice", Double.class);
+	private final NamedDouble sum = Value.namedDouble("sum");
+	private final NamedDouble max = Value.namedDouble("max");
+	private final NamedDouble withTax = Value.namedDouble("withTax");
+	private final NamedLong count = Value.namedLong("count");
+	private final NamedLong doubledCount = Value.namedLong("doubledCount");
+	private final NamedInt items = Value.namedInt("items");
+	private final NamedInt nextItems = Value.namedInt("nextItems");
+
+	private final DoubleAggregated sumCalculation = Calculate.doubleValue(sum)
+		.aggregating(Arrays.asList(price, otherPrice, boxedPrice))
+		.by(values -> Arrays.stream(values).sum(), "sum(...)");
+
+	private final Rules rules = Rules.empty()
+		.add(sumCalculation)
+		.add(Calculate.doubleValue(max).aggregating(Arrays.asList(price, otherPrice, boxedPrice))
+			.by(values -> Arrays.stream(values).max().orElse(0.0)))
+		.add(Calculate.doubleValue(withTax).using(sum).ifAllSetBy(it -> it * 1.19))
+		.add(Calculate.longValue(doubledCount).using(count, count).ifAllSetBy(Long::sum))
+		.add(Calculate.intValue(nextItems).requiring(items).by(it -> it + 1));
+
+	@Test
+	void primitiveCalculations() {
+		Result result = Solver.solve(ValueDependencyGraphBuilder.build(rules), StrictValueLookup.of(
+			MappedValue.of(price, 10.0),
+			MappedValue.of(otherPrice, null),
+			MappedValue.of(boxedPrice, 5.0),
+			MappedValue.of(count, 3L),
+			MappedValue.of(items, 7)));
+
+		assertThat(result.getDouble(sum)).isEqualTo(15.0);
+		assertThat(result.getDouble(max)).isEqualTo(10.0);
+		assertThat(result.getDouble(withTax)).isEqualTo(15.0 * 1.19);
+		assertThat(result.get(withTax)).isEqualTo(15.0 * 1.19);
+		assertThat(result.getLong(doubledCount)).isEqualTo(6L);
+		assertThat(result.getInt(nextItems)).isEqualTo(8);
+		assertThat(result.get(otherPrice)).isNull();
+		assertThat(sumCalculation.asHumanReadable()).isEqualTo("sum(...)");
+	}
+
+	@Test
+	void missingSourceGivesNull() {
+		Result result = Solver.solve(ValueDependencyGraphBuilder.build(rules), StrictValueLookup.of(
+			MappedValue.of(price, null),
+			MappedValue.of(otherPrice, null),
+			MappedValue.of(boxedPrice, null),
+			MappedValue.of(count, null),
+			MappedValue.of(items, 1)));
+
+		assertThat(result.getDouble(sum)).isEqualTo(0.0);
+		assertThat(result.get(doubledCount)).isNull();
+		assertThatThrownBy(() -> result.getLong(doubledCount))
+			.isInstanceOf(NullPointerException.class)
+			.hasMessageContaining("is null");
+	}
+
+	@Test
+	void missingRequiredSourceMustFail() {
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.intValue(nextItems).requiring(items).by(it -> it + 1, "next"))
+			.add(Calculate.doubleValue(withTax).requiring(price, otherPrice).by(Double::sum, "plus")));
+
+		assertThatThrownBy(() -> Solver.solve(valueGraph, StrictValueLookup.of(
+			MappedValue.of(items, null),
+			MappedValue.of(price, 1.0),
+			MappedValue.of(otherPrice, 2.0))))
+			.isInstanceOf(NullPointerException.class)
+			.hasMessageContaining("next: items(int) is null");
+
+		assertThatThrownBy(() -> Solver.solve(valueGraph, StrictValueLookup.of(
+			MappedValue.of(items, 1),
+			MappedValue.of(price, 1.0),
+			MappedValue.of(otherPrice, null))))
+			.isInstanceOf(NullPointerException.class)
+			.hasMessageContaining("plus: otherPrice(double) is null");
+	}
+
+	@Test
+	void sameResultWithValidationAndInParallel() {
+		Rules withValidation = rules.add(Validate.value(sum)
+			.by(value -> value.filter(it -> it > 100.0).isPresent() ? Validation.error("too-much") : Validation.noErrors()));
+		StrictValueLookup lookup = StrictValueLookup.of(
+			MappedValue.of(price, 100.0),
+			MappedValue.of(otherPrice, 1.0),
+			MappedValue.of(boxedPrice, 2.0),
+			MappedValue.of(count, 3L),
+			MappedValue.of(items, 7));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		Result result;
+		try {
+			result = Solver.solve(ValueDependencyGraphBuilder.build(withValidation), lookup, SolveOptions.parallel(executor));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(result.validationErrors()).containsOnlyKeys(sum);
+		assertThat(result.get(withTax)).isNull();
+		assertThat(result.getDouble(max)).isEqualTo(100.0);
+		assertThat(result.getLong(doubledCount)).isEqualTo(6L);
+	}
+}
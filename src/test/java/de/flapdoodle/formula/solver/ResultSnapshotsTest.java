@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.validation.Validate;
+import de.flapdoodle.formula.validation.Validation;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResultSnapshotsTest {
+	private final Named<Integer> a = Value.named("a", Integer.class);
+	private final Named<Integer> b = Value.named("b", Integer.class);
+	private final Named<Integer> sum = Value.named("sum", Integer.class);
+	private final Named<LocalDate> date = Value.named("date", LocalDate.class);
+
+	private final SolverPlan plan = SolverPlan.of(ValueDependencyGraphBuilder.build(Rules.empty()
+		.add(Calculate.value(sum).using(a, b).by((x, y) -> x != null && y != null ? x + y : null))
+		.add(Calculate.value(date).using(sum).by(x -> x != null ? LocalDate.of(2000, 1, 1).plusDays(x) : null))
+		.add(Validate.value(b).by(value -> value.filter(it -> it > 10).isPresent()
+			? Validation.error("too-big", value.get(), 10)
+			: Validation.noErrors()))));
+
+	private final ValueCodecs codecs = ValueCodecs.defaults()
+		.with(ValueCodec.of(LocalDate.class, (value, out) -> out.writeLong(value.toEpochDay()), in -> LocalDate.ofEpochDay(in.readLong())));
+
+	private final ValueNames names = ValueNames.of(Arrays.asList(a, b, sum, date), it -> it.asHumanReadable());
+
+	@Test
+	void validResultRoundTrip() throws IOException {
+		Result result = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 2)));
+
+		Result copy = ResultSnapshots.read(plan, Channels.newChannel(new ByteArrayInputStream(snapshot(result))), codecs, names);
+
+		assertThat(copy.validatedValues()).containsExactlyInAnyOrderElementsOf(result.validatedValues());
+		assertThat(copy.validationErrors()).isEmpty();
+		assertThat(copy.get(sum)).isEqualTo(3);
+		assertThat(copy.get(date)).isEqualTo(LocalDate.of(2000, 1, 4));
+		assertThat(copy.isTruncated()).isFalse();
+	}
+
+	@Test
+	void validationErrorsRoundTrip() throws IOException {
+		Result result = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 20)));
+		assertThat(result.validationErrors()).isNotEmpty();
+
+		Result copy = ResultSnapshots.read(plan, Channels.newChannel(new ByteArrayInputStream(snapshot(result))), codecs, names);
+
+		assertThat(copy.validatedValues()).containsExactlyInAnyOrderElementsOf(result.validatedValues());
+		assertThat(copy.validationErrors()).isEqualTo(result.validationErrors());
+	}
+
+	@Test
+	void missingCodecMustFail() {
+		Result result = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 2)));
+
+		assertThatThrownBy(() -> ResultSnapshots.write(result, Channels.newChannel(new ByteArrayOutputStream()), ValueCodecs.defaults(), names))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("no codec for");
+	}
+
+	@Test
+	void unknownValuesMustFail() throws IOException {
+		Result result = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 2)));
+		SolverPlan otherPlan = SolverPlan.of(ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(sum).using(a, b).by((x, y) -> x != null && y != null ? x + y : null))));
+		byte[] snapshot = snapshot(result);
+
+		assertThatThrownBy(() -> ResultSnapshots.read(otherPlan, Channels.newChannel(new ByteArrayInputStream(snapshot)), codecs, names))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("unknown value");
+	}
+
+	@Test
+	void valuesWithoutStableNameMustFail() {
+		Result result = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 2)));
+
+		assertThatThrownBy(() -> ResultSnapshots.write(result, Channels.newChannel(new ByteArrayOutputStream()), codecs,
+			ValueNames.of(Arrays.asList(a, b), it -> it.asHumanReadable())))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("no stable name for");
+	}
+
+	@Test
+	void otherDataMustFail() {
+		byte[] data = new byte[16];
+
+		assertThatThrownBy(() -> ResultSnapshots.read(plan, Channels.newChannel(new ByteArrayInputStream(data)), codecs, names))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("not a result snapshot");
+	}
+
+	@Test
+	void readStopsAtTheEndOfTheSnapshot() throws IOException {
+		Result first = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 2)));
+		Result second = Solver.solve(plan, StrictValueLookup.of(MappedValue.of(a, 1), MappedValue.of(b, 20)));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		WritableByteChannel channel = Channels.newChannel(out);
+		ResultSnapshots.write(first, channel, codecs, names);
+		ResultSnapshots.write(second, channel, codecs, names);
+
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(ResultSnapshots.read(plan, in, codecs, names).get(sum)).isEqualTo(3);
+		assertThat(ResultSnapshots.read(plan, in, codecs, names).validationErrors()).isEqualTo(second.validationErrors());
+	}
+
+	private byte[] snapshot(Result result) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ResultSnapshots.write(result, Channels.newChannel(out), codecs, names);
+		return out.toByteArray();
+	}
+}
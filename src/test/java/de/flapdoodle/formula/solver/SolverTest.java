@@ -29,6 +29,9 @@ import de.flapdoodle.formula.values.Named;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -200,4 +203,204 @@ class SolverTest {
 		assertThat(context.isInvalid(sumProperty)).isFalse();
 		assertThat(context.getValidated(sumProperty)).isNull();
 	}
-}
\ No newline at end of file
+
+	@Test
+	void planCanBeReusedForManySolves() {
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(
+				Calculate.value(sumValue)
+					.using(aProperty, bProperty)
+					.by((a, b) -> a + b),
+				Calculate.value(sumProperty)
+					.from(sumValue))
+		);
+
+		SolverPlan plan = SolverPlan.of(valueGraph);
+
+		assertThat(plan.size()).isEqualTo(4);
+		assertThat(valueGraph.plan()).isSameAs(valueGraph.plan());
+
+		Result first = Solver.solve(plan, StrictValueLookup.of(
+			MappedValue.of(aProperty, 1),
+			MappedValue.of(bProperty, 2)
+		));
+		Result second = Solver.solve(plan, StrictValueLookup.of(
+			MappedValue.of(aProperty, 10),
+			MappedValue.of(bProperty, 20)
+		));
+
+		assertThat(first.get(sumProperty)).isEqualTo(3);
+		assertThat(second.get(sumProperty)).isEqualTo(30);
+
+		assertThatThrownBy(() -> Solver.solve(plan, StrictValueLookup.of(
+			MappedValue.of(aProperty, 1),
+			MappedValue.of(bProperty, 2),
+			MappedValue.of(sumValue, 1234)
+		))).isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("value lookup values are shadowed by calculations: ["+sumValue);
+	}
+
+	@Test
+	void resultContainsSameValuesAndErrorsAsContext() {
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(
+				Calculate.value(sumValue)
+					.using(aProperty, bProperty)
+					.by((a, b) -> a + b),
+				Calculate.value(sumProperty)
+					.from(sumValue))
+			.add(Validate.value(sumValue).by((value) -> value.map(it -> (it > 10)
+					? Validation.error("to-big", it)
+					: Validation.noErrors())
+				.orElse(Validation.error("not-set"))))
+		);
+
+		StrictValueLookup lookup = StrictValueLookup.of(
+			MappedValue.of(aProperty, 7),
+			MappedValue.of(bProperty, 4)
+		);
+
+		Context context = Solver.solve(Context.empty(), valueGraph, lookup);
+		Result result = Solver.solve(valueGraph, lookup);
+
+		assertThat(result.validatedValues())
+			.containsExactlyElementsOf(context.validatedValues().keys());
+		assertThat(result.validationErrors())
+			.isEqualTo(context.validationErrorMap());
+		assertThat(result.get(sumValue)).isNull();
+		assertThat(result.get(sumProperty)).isNull();
+		assertThat(result.get(aProperty)).isEqualTo(7);
+	}
+
+	@Test
+	void resolveOnlyCalculatesValuesDependingOnChangedValues() {
+		Named<Integer> otherSum = Value.named("otherSum", Integer.class);
+		AtomicInteger sumCalls = new AtomicInteger();
+		AtomicInteger otherSumCalls = new AtomicInteger();
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(
+				Calculate.value(sumValue)
+					.using(aProperty, bProperty)
+					.by((a, b) -> {
+						sumCalls.incrementAndGet();
+						return a != null && b != null ? a + b : null;
+					}),
+				Calculate.value(otherSum)
+					.using(bProperty, cProperty)
+					.by((b, c) -> {
+						otherSumCalls.incrementAndGet();
+						return b + c;
+					}),
+				Calculate.value(sumProperty)
+					.from(sumValue))
+			.add(Validate.value(aProperty).by((value) -> value.filter(it -> it > 10).isPresent()
+				? Validation.error("to-big")
+				: Validation.noErrors()))
+		);
+
+		Result previous = Solver.solve(valueGraph, StrictValueLookup.of(
+			MappedValue.of(aProperty, 1),
+			MappedValue.of(bProperty, 2),
+			MappedValue.of(cProperty, 3)
+		));
+
+		assertThat(previous.get(sumProperty)).isEqualTo(3);
+		assertThat(previous.get(otherSum)).isEqualTo(5);
+
+		Result changed = Solver.resolve(valueGraph, previous, Collections.singleton(aProperty), StrictValueLookup.of(
+			MappedValue.of(aProperty, 5),
+			MappedValue.of(bProperty, 2),
+			MappedValue.of(cProperty, 3)
+		));
+
+		assertThat(changed.get(sumProperty)).isEqualTo(7);
+		assertThat(changed.get(otherSum)).isEqualTo(5);
+		assertThat(sumCalls.get()).isEqualTo(2);
+		assertThat(otherSumCalls.get()).isEqualTo(1);
+
+		Result invalid = Solver.resolve(valueGraph, changed, Collections.singleton(aProperty), StrictValueLookup.of(
+			MappedValue.of(aProperty, 11),
+			MappedValue.of(bProperty, 2),
+			MappedValue.of(cProperty, 3)
+		));
+
+		assertThat(invalid.validationErrors()).containsOnlyKeys(aProperty);
+		assertThat(invalid.get(sumProperty)).isNull();
+		assertThat(invalid.get(otherSum)).isEqualTo(5);
+		assertThat(otherSumCalls.get()).isEqualTo(1);
+	}
+
+	@Test
+	void solveOnlyWhatIsNeededForTargets() {
+		Named<Integer> otherSum = Value.named("otherSum", Integer.class);
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(
+				Calculate.value(sumValue)
+					.using(aProperty, bProperty)
+					.by((a, b) -> a + b),
+				Calculate.value(otherSum)
+					.using(bProperty, cProperty)
+					.by((b, c) -> b + c),
+				Calculate.value(sumProperty)
+					.from(sumValue))
+		);
+
+		// cProperty is not needed, so the lookup must not be asked for it
+		StrictValueLookup lookup = StrictValueLookup.of(
+			MappedValue.of(aProperty, 1),
+			MappedValue.of(bProperty, 2)
+		);
+
+		Result result = Solver.solve(valueGraph, lookup, Collections.singleton(sumProperty));
+
+		assertThat(result.get(sumProperty)).isEqualTo(3);
+		assertThat(result.validatedValues())
+			.containsExactlyInAnyOrder(aProperty, bProperty, sumValue, sumProperty);
+		assertThatThrownBy(() -> result.get(otherSum))
+			.isInstanceOf(NullPointerException.class);
+
+		assertThatThrownBy(() -> Solver.solve(valueGraph, lookup, Collections.singleton(Value.named("unknown", Integer.class))))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("unknown value");
+	}
+
+	@Test
+	void failFastAndErrorBudgetStopEarly() {
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(
+				Calculate.value(sumValue)
+					.using(aProperty, bProperty)
+					.by((a, b) -> a != null && b != null ? a + b : null))
+			.add(Validate.value(aProperty).by((value) -> Validation.error("a-invalid")))
+			.add(Validate.value(bProperty).by((value) -> Validation.error("b-invalid")))
+			.add(Validate.value(cProperty).by((value) -> Validation.error("c-invalid")))
+		);
+
+		StrictValueLookup lookup = StrictValueLookup.of(
+			MappedValue.of(aProperty, 1),
+			MappedValue.of(bProperty, 2),
+			MappedValue.of(cProperty, 3)
+		);
+
+		Result complete = Solver.solve(valueGraph, lookup);
+		assertThat(complete.isTruncated()).isFalse();
+		assertThat(complete.validationErrors()).hasSize(3);
+
+		Result failFast = Solver.solve(valueGraph, lookup, SolveOptions.failFast());
+		assertThat(failFast.isTruncated()).isTrue();
+		assertThat(failFast.validationErrors()).hasSize(1);
+
+		Result budget = Solver.solve(valueGraph, lookup, SolveOptions.errorBudget(2));
+		assertThat(budget.isTruncated()).isTrue();
+		assertThat(budget.validationErrors()).hasSize(2);
+
+		Result notReached = Solver.solve(valueGraph, lookup, SolveOptions.errorBudget(4));
+		assertThat(notReached.isTruncated()).isFalse();
+		assertThat(notReached.validationErrors()).hasSize(3);
+
+		assertThatThrownBy(() -> SolveOptions.errorBudget(0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
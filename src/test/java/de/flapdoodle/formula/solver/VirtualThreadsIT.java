@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.solver;
+
+import de.flapdoodle.formula.Value;
+import de.flapdoodle.formula.calculate.Calculate;
+import de.flapdoodle.formula.calculate.MappedValue;
+import de.flapdoodle.formula.calculate.StrictValueLookup;
+import de.flapdoodle.formula.rules.Rules;
+import de.flapdoodle.formula.values.Named;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// run by failsafe in the java21 profile against the multi release jar
+class VirtualThreadsIT {
+
+	@Test
+	void valuesAreCalculatedOnVirtualThreads() throws ReflectiveOperationException {
+		Method isVirtual = Thread.class.getMethod("isVirtual");
+		Named<Integer> a = Value.named("a", Integer.class);
+		Named<Boolean> b = Value.named("b", Boolean.class);
+
+		ValueGraph valueGraph = ValueDependencyGraphBuilder.build(Rules.empty()
+			.add(Calculate.value(b).requiring(a).by(x -> isVirtual(isVirtual))));
+		StrictValueLookup lookup = StrictValueLookup.of(MappedValue.of(a, 1));
+
+		assertThat(VirtualThreads.isSupported()).isTrue();
+		assertThat(Solver.solve(valueGraph, lookup, SolveOptions.virtualThreads()).get(b)).isTrue();
+	}
+
+	private static boolean isVirtual(Method isVirtual) {
+		try {
+			return (Boolean) isVirtual.invoke(Thread.currentThread());
+		}
+		catch (ReflectiveOperationException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2022
+ *   Michael Mosmann <michael@mosmann.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.flapdoodle.formula.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChecksTest {
+
+	@Test
+	void collisionsAreCheckedInCallingThread() {
+		List<Integer> values = numbers(Checks.PARALLEL_THRESHOLD * 2);
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+		Set<Integer> collisions = Checks.collisions(values, it -> {
+			threads.add(Thread.currentThread());
+			return it % Checks.PARALLEL_THRESHOLD;
+		});
+
+		assertThat(collisions).hasSize(Checks.PARALLEL_THRESHOLD);
+		assertThat(threads).containsExactly(Thread.currentThread());
+	}
+
+	@Test
+	void largeCollectionsAreCheckedInGivenPool() {
+		List<Integer> values = numbers(Checks.PARALLEL_THRESHOLD * 2);
+		values.add(7);
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			Set<Integer> collisions = Checks.collisions(values, it -> {
+				threads.add(Thread.currentThread());
+				return it;
+			}, pool);
+
+			assertThat(collisions).containsExactly(7);
+			assertThat(threads).allSatisfy(thread -> assertThat(thread)
+				.isInstanceOfSatisfying(ForkJoinWorkerThread.class, it -> assertThat(it.getPool()).isSameAs(pool)));
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static List<Integer> numbers(int count) {
+		List<Integer> ret = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ret.add(i);
+		}
+		return ret;
+	}
+}